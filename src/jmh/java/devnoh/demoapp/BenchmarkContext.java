@@ -0,0 +1,57 @@
+package devnoh.demoapp;
+
+import org.springframework.boot.Banner;
+import org.springframework.boot.autoconfigure.mongo.embedded.EmbeddedMongoAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Boots the application for a benchmark trial, with logging turned down and an in-memory broker.
+ *
+ * Benchmarks run on the test classpath, so {@code @TestConfiguration} classes of the unit tests are kept out of
+ * component scanning, as the Spring test context does.
+ */
+public final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    public static ConfigurableApplicationContext start(boolean web, boolean mongo, String... properties) {
+        // Passed as command line arguments so they override application.properties.
+        List<String> args = new ArrayList<>(Arrays.asList(
+                "--logging.level.ROOT=WARN",
+                "--logging.level.devnoh=WARN",
+                "--spring.activemq.broker-url=vm://benchmark?broker.persistent=false",
+                "--server.port=0"));
+        if (!mongo) {
+            args.add("--spring.autoconfigure.exclude=" + EmbeddedMongoAutoConfiguration.class.getName());
+            args.add("--mongo.indexes.create-on-startup=false");
+        }
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        return new SpringApplicationBuilder(Application.class)
+                .web(web)
+                .bannerMode(Banner.Mode.OFF)
+                .initializers(context -> context.getBeanFactory()
+                        .registerSingleton("testConfigurationExcludeFilter", new TestConfigurationExcludeFilter()))
+                .run(args.toArray(new String[args.size()]));
+    }
+
+    static class TestConfigurationExcludeFilter extends TypeExcludeFilter {
+
+        @Override
+        public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory) {
+            return metadataReader.getAnnotationMetadata().hasAnnotation(TestConfiguration.class.getName());
+        }
+    }
+
+}
@@ -0,0 +1,32 @@
+package devnoh.demoapp;
+
+import devnoh.demoapp.domain.Product;
+import devnoh.demoapp.domain.Student;
+
+/**
+ * Builds the products and students the serialization benchmarks render, so every benchmark measures the same data.
+ */
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    public static Product product(long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setCode(String.format("P%06d", id));
+        product.setName("Product " + id);
+        product.setDescription("This is a cool product " + id);
+        product.setActive(true);
+        return product;
+    }
+
+    public static Student student(int id) {
+        Student student = new Student();
+        student.setId(String.format("5a9d6f1be4b0a5b1c8e4%04x", id));
+        student.setName("Student " + id);
+        student.setGrade(id % 12 + 1);
+        return student;
+    }
+
+}
@@ -0,0 +1,103 @@
+package devnoh.demoapp.domain;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import devnoh.demoapp.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the response payloads, using a mapper configured the way Spring Boot configures its
+ * own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"20"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+
+    private ObjectWriter writer;
+
+    private ObjectReader productReader;
+
+    private Product product;
+
+    private Student student;
+
+    private Page<Product> page;
+
+    private byte[] productJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writer();
+        productReader = objectMapper.readerFor(Product.class);
+
+        product = BenchmarkFixtures.product(1);
+
+        student = new Student();
+        student.setId("5a9d6f1be4b0a5b1c8e4d2f7");
+        student.setName("Student 1");
+        student.setGrade(3);
+
+        List<Product> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            content.add(BenchmarkFixtures.product(i));
+        }
+        page = new PageImpl<>(content, new PageRequest(0, pageSize), 1000);
+
+        productJson = writer.writeValueAsBytes(product);
+    }
+
+    @Benchmark
+    public byte[] writeProduct() throws Exception {
+        return writer.writeValueAsBytes(product);
+    }
+
+    @Benchmark
+    public byte[] writeProduct_NewMapper() throws Exception {
+        return new ObjectMapper().writeValueAsBytes(product);
+    }
+
+    @Benchmark
+    public Product readProduct() throws Exception {
+        return productReader.readValue(productJson);
+    }
+
+    @Benchmark
+    public byte[] writeStudent() throws Exception {
+        return writer.writeValueAsBytes(student);
+    }
+
+    @Benchmark
+    public byte[] writeProductPage() throws Exception {
+        return writer.writeValueAsBytes(page);
+    }
+
+}
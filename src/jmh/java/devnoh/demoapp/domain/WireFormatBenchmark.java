@@ -0,0 +1,93 @@
+package devnoh.demoapp.domain;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import devnoh.demoapp.BenchmarkFixtures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON against Smile for the page payloads, both mappers configured the way the message converters configure
+ * theirs. The payload sizes are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"json", "smile"})
+    private String format;
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectWriter writer;
+
+    private ObjectReader productsReader;
+
+    private Page<Product> productPage;
+
+    private Page<Student> studentPage;
+
+    private byte[] products;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = "smile".equals(format) ? new ObjectMapper(new SmileFactory()) : new ObjectMapper();
+        Jackson2ObjectMapperBuilder.json().configure(objectMapper);
+        writer = objectMapper.writer();
+        productsReader = objectMapper.readerFor(new TypeReference<List<Product>>() { });
+
+        List<Product> productContent = new ArrayList<>(pageSize);
+        List<Student> studentContent = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            productContent.add(BenchmarkFixtures.product(i));
+            studentContent.add(BenchmarkFixtures.student(i));
+        }
+        productPage = new PageImpl<>(productContent, new PageRequest(0, pageSize), 1000);
+        studentPage = new PageImpl<>(studentContent, new PageRequest(0, pageSize), 1000);
+
+        products = writer.writeValueAsBytes(productContent);
+        System.out.printf("%n%s, %d per page: product page %d bytes, student page %d bytes%n", format, pageSize,
+                writer.writeValueAsBytes(productPage).length, writer.writeValueAsBytes(studentPage).length);
+    }
+
+    @Benchmark
+    public byte[] writeProductPage() throws Exception {
+        return writer.writeValueAsBytes(productPage);
+    }
+
+    @Benchmark
+    public List<Product> readProducts() throws Exception {
+        return productsReader.readValue(products);
+    }
+
+    @Benchmark
+    public byte[] writeStudentPage() throws Exception {
+        return writer.writeValueAsBytes(studentPage);
+    }
+
+}
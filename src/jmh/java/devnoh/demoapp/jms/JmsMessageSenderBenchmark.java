@@ -0,0 +1,70 @@
+package devnoh.demoapp.jms;
+
+import devnoh.demoapp.BenchmarkContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Send throughput to the default queue on the in-memory broker, in messages per second. The application's own
+ * listener drains the queue so the broker never applies producer flow control.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JmsMessageSenderBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    private ConfigurableApplicationContext context;
+
+    private JmsMessageSender jmsMessageSender;
+
+    private List<String> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(false, false, "jms.listener.batch-enabled=true");
+        jmsMessageSender = context.getBean(JmsMessageSender.class);
+
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add("Message " + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void send() {
+        jmsMessageSender.send("Message");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int sendAll() {
+        return jmsMessageSender.sendAll(batch);
+    }
+
+}
@@ -0,0 +1,106 @@
+package devnoh.demoapp.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import devnoh.demoapp.BenchmarkFixtures;
+import devnoh.demoapp.domain.Product;
+import devnoh.demoapp.domain.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Default Jackson rendering of a page against the {@link CompactPageHttpMessageConverter}, both into a reused
+ * buffer so that only the rendering allocates. Run with {@code -prof gc} and compare {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageRenderingBenchmark {
+
+    private static final Type PRODUCT_PAGE = new ParameterizedTypeReference<Page<Product>>() { }.getType();
+
+    private static final Type STUDENT_PAGE = new ParameterizedTypeReference<Page<Student>>() { }.getType();
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectWriter writer;
+
+    private CompactPageHttpMessageConverter converter;
+
+    private Page<Product> productPage;
+
+    private Page<Student> studentPage;
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writer();
+        converter = new CompactPageHttpMessageConverter(objectMapper);
+
+        List<Product> products = new ArrayList<>(pageSize);
+        List<Student> students = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            products.add(BenchmarkFixtures.product(i));
+            students.add(BenchmarkFixtures.student(i));
+        }
+        PageRequest pageRequest = new PageRequest(0, pageSize, Sort.Direction.ASC, "name");
+        productPage = new PageImpl<>(products, pageRequest, 1000);
+        studentPage = new PageImpl<>(students, pageRequest, 1000);
+    }
+
+    @Benchmark
+    public int productPage_Jackson() throws Exception {
+        out.reset();
+        writer.writeValue(out, productPage);
+        return out.size();
+    }
+
+    @Benchmark
+    public int productPage_Compact() throws Exception {
+        out.reset();
+        converter.write(productPage, PRODUCT_PAGE, out);
+        return out.size();
+    }
+
+    @Benchmark
+    public int studentPage_Jackson() throws Exception {
+        out.reset();
+        writer.writeValue(out, studentPage);
+        return out.size();
+    }
+
+    @Benchmark
+    public int studentPage_Compact() throws Exception {
+        out.reset();
+        converter.write(studentPage, STUDENT_PAGE, out);
+        return out.size();
+    }
+
+}
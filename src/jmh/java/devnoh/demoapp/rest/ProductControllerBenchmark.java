@@ -0,0 +1,120 @@
+package devnoh.demoapp.rest;
+
+import devnoh.demoapp.BenchmarkContext;
+import devnoh.demoapp.domain.Product;
+import devnoh.demoapp.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.context.embedded.EmbeddedWebApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.setup.MockMvcBuilders.webAppContextSetup;
+
+/**
+ * Full {@link ProductController} dispatch: through the DispatcherServlet with MockMvc, and over HTTP to the
+ * embedded Tomcat.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductControllerBenchmark {
+
+    @Param({"1000"})
+    private int products;
+
+    private ConfigurableApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    private RestTemplate restTemplate;
+
+    private String baseUrl;
+
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(true, false);
+        mockMvc = webAppContextSetup((WebApplicationContext) context).build();
+        restTemplate = context.getBean(RestTemplate.class);
+        int port = ((EmbeddedWebApplicationContext) context).getEmbeddedServletContainer().getPort();
+        baseUrl = "http://localhost:" + port + "/products";
+
+        ProductService productService = context.getBean(ProductService.class);
+        List<Product> chunk = new ArrayList<>(products);
+        for (int i = 0; i < products; i++) {
+            Product product = new Product();
+            product.setCode(String.format("P%06d", i));
+            product.setName("Product " + i);
+            product.setDescription("This is a cool product " + i);
+            product.setActive(true);
+            chunk.add(product);
+        }
+        ids = productService.saveProducts(chunk).stream().mapToLong(Product::getId).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] findProductById_MockMvc() throws Exception {
+        return read(get("/products/{id}", randomId()).accept(MediaType.APPLICATION_JSON));
+    }
+
+    @Benchmark
+    public byte[] findActiveProducts_MockMvc() throws Exception {
+        return read(get("/products").param("page", "0").param("size", "20").accept(MediaType.APPLICATION_JSON));
+    }
+
+    @Benchmark
+    public byte[] findProductById_Http() {
+        return restTemplate.getForObject(baseUrl + "/" + randomId(), byte[].class);
+    }
+
+    @Benchmark
+    public byte[] findActiveProducts_Http() {
+        return restTemplate.getForObject(baseUrl + "?page=0&size=20", byte[].class);
+    }
+
+    /**
+     * Reads answer with a deferred result, which MockMvc leaves to be dispatched.
+     */
+    private byte[] read(RequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        return mockMvc.perform(asyncDispatch(result)).andReturn().getResponse().getContentAsByteArray();
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(products)];
+    }
+
+}
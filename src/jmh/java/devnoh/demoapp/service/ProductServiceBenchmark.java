@@ -0,0 +1,155 @@
+package devnoh.demoapp.service;
+
+import devnoh.demoapp.BenchmarkContext;
+import devnoh.demoapp.domain.Product;
+import devnoh.demoapp.repository.ProductRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Product lookups against the in-memory H2 database, with and without the product cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductServiceBenchmark {
+
+    private static final int CART_SIZE = 50;
+
+    @Param({"10000"})
+    private int products;
+
+    private ConfigurableApplicationContext context;
+
+    private ProductService productService;
+
+    private ProductRepository productRepository;
+
+    private long[] ids;
+
+    private String deepCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(false, false);
+        productService = context.getBean(ProductService.class);
+        productRepository = context.getBean(ProductRepository.class);
+
+        ids = new long[products];
+        List<Product> chunk = new ArrayList<>();
+        for (int i = 0; i < products; i++) {
+            Product product = new Product();
+            product.setCode(String.format("P%06d", i));
+            product.setName("Product " + i);
+            product.setDescription("This is a cool product " + i);
+            product.setActive(i % 10 != 0);
+            chunk.add(product);
+            if (chunk.size() == 500 || i == products - 1) {
+                for (Product saved : productService.saveProducts(chunk)) {
+                    ids[Integer.parseInt(saved.getCode().substring(1))] = saved.getId();
+                }
+                chunk.clear();
+            }
+        }
+        // Same depth as findActiveProducts_DeepPage, for comparing offset and keyset pagination.
+        deepCursor = productService.findActiveProducts(null, products / 40 * 20).getNextCursor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Product findProductById() {
+        return productService.findProductById(randomId());
+    }
+
+    @Benchmark
+    public Product findProductById_Uncached() {
+        return productRepository.findOne(randomId());
+    }
+
+    @Benchmark
+    public Product findProductByCode() {
+        return productService.findProductByCode(String.format("P%06d", randomIndex()));
+    }
+
+    @Benchmark
+    public List<Product> findProductsOneByOne_Uncached() {
+        List<Product> found = new ArrayList<>(CART_SIZE);
+        for (Long id : randomIds()) {
+            found.add(productRepository.findOne(id));
+        }
+        return found;
+    }
+
+    @Benchmark
+    public List<Product> findProductsByIds_Uncached() {
+        return productRepository.findByIdIn(randomIds());
+    }
+
+    @Benchmark
+    public MultiGetResult<Long, Product> findProductsByIds() {
+        return productService.findProductsByIds(randomIds());
+    }
+
+    @Benchmark
+    public Page<Product> findActiveProducts_FirstPage() {
+        return productService.findActiveProducts(new PageRequest(0, 20));
+    }
+
+    @Benchmark
+    public Page<Product> findActiveProducts_DeepPage() {
+        return productService.findActiveProducts(new PageRequest(products / 40, 20));
+    }
+
+    @Benchmark
+    public CursorPage<Product> findActiveProducts_Cursor() {
+        return productService.findActiveProducts(null, 20);
+    }
+
+    @Benchmark
+    public CursorPage<Product> findActiveProducts_DeepCursor() {
+        return productService.findActiveProducts(deepCursor, 20);
+    }
+
+    private long randomId() {
+        return ids[randomIndex()];
+    }
+
+    private List<Long> randomIds() {
+        List<Long> cart = new ArrayList<>(CART_SIZE);
+        for (int i = 0; i < CART_SIZE; i++) {
+            cart.add(randomId());
+        }
+        return cart;
+    }
+
+    private int randomIndex() {
+        return ThreadLocalRandom.current().nextInt(products);
+    }
+
+}
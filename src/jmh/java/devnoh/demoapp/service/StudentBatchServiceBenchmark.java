@@ -0,0 +1,90 @@
+package devnoh.demoapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import devnoh.demoapp.BenchmarkContext;
+import devnoh.demoapp.domain.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Student ingest into embedded Mongo, in students per second: one save per student against the NDJSON bulk path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentBatchServiceBenchmark {
+
+    private static final int STUDENTS = 1000;
+
+    private ConfigurableApplicationContext context;
+
+    private StudentService studentService;
+
+    private StudentBatchService studentBatchService;
+
+    private List<Student> students;
+
+    private byte[] ndjson;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkContext.start(false, true);
+        studentService = context.getBean(StudentService.class);
+        studentBatchService = context.getBean(StudentBatchService.class);
+
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        students = new ArrayList<>(STUDENTS);
+        for (int i = 0; i < STUDENTS; i++) {
+            Student student = new Student();
+            student.setName("Student " + i);
+            student.setGrade(i % 12 + 1);
+            students.add(student);
+            out.write(objectMapper.writeValueAsBytes(student));
+            out.write('\n');
+        }
+        ndjson = out.toByteArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STUDENTS)
+    public void saveStudent() {
+        for (Student student : students) {
+            student.setId(null);
+            studentService.saveStudent(student);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STUDENTS)
+    public BatchResult saveStudents() throws Exception {
+        return studentBatchService.saveStudents(new ByteArrayInputStream(ndjson));
+    }
+
+}
@@ -0,0 +1,95 @@
+package devnoh.demoapp.service;
+
+import devnoh.demoapp.BenchmarkContext;
+import devnoh.demoapp.domain.Student;
+import devnoh.demoapp.repository.StudentSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Student lookups against embedded Mongo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentServiceBenchmark {
+
+    private static final int GRADES = 12;
+
+    private static final PageRequest BY_NAME = new PageRequest(0, 20, Sort.Direction.ASC, "name");
+
+    @Param({"10000"})
+    private int students;
+
+    private ConfigurableApplicationContext context;
+
+    private StudentService studentService;
+
+    private String[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start(false, true);
+        studentService = context.getBean(StudentService.class);
+
+        ids = new String[students];
+        for (int i = 0; i < students; i++) {
+            Student student = new Student();
+            student.setName("Student " + i);
+            student.setGrade(i % GRADES + 1);
+            ids[i] = studentService.saveStudent(student).getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Student findStudentById() {
+        return studentService.findStudentById(ids[randomIndex()]);
+    }
+
+    @Benchmark
+    public List<Student> findStudentsByName() {
+        return studentService.findStudentsByName("Student " + randomIndex());
+    }
+
+    @Benchmark
+    public Page<Student> findStudentsByGrade() {
+        return studentService.findStudentsByGrade(randomIndex() % GRADES + 1, BY_NAME);
+    }
+
+    @Benchmark
+    public Page<StudentSummary> findStudentSummariesByGrade() {
+        return studentService.findStudentSummariesByGrade(randomIndex() % GRADES + 1, BY_NAME);
+    }
+
+    private int randomIndex() {
+        return ThreadLocalRandom.current().nextInt(students);
+    }
+
+}
@@ -0,0 +1,144 @@
+package devnoh.demoapp.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Admission state shared by the {@link AdmissionInterceptor} and the {@link AdmissionEndpoint}: one token
+ * bucket per client, and one {@link ConcurrencyLimit} per endpoint group.
+ *
+ * Rate limiting only applies when a {@code clientHeader} is configured, since behind a load balancer every request
+ * comes from the balancer's address and all clients would share one bucket. Clients are told apart by that header,
+ * or by their address when a request does not carry it. The header must be set by a trusted proxy that replaces
+ * whatever the caller sent: a caller that can set it gets a fresh bucket for every value it makes up. Buckets are
+ * kept in memory, so the rate is per node and per client key; a client spread over n nodes gets up to n times the
+ * rate. Buckets of idle clients are dropped after ten minutes. A rate of zero turns rate limiting off.
+ */
+public class AdmissionControl implements PublicMetrics {
+
+    public static final String RATE = "rate";
+
+    private final Map<String, ConcurrencyLimit> groups;
+
+    private final String clientHeader;
+
+    private final Cache<String, TokenBucket> buckets;
+
+    private final LongAdder rateLimited = new LongAdder();
+
+    private volatile double perSecond;
+
+    private volatile double burst;
+
+    public AdmissionControl(Map<String, ConcurrencyLimit> groups, String clientHeader, long maxClients,
+                            double perSecond, double burst) {
+        this.groups = Collections.unmodifiableMap(new LinkedHashMap<>(groups));
+        this.clientHeader = clientHeader;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(10, TimeUnit.MINUTES)
+                .build();
+        setRate(perSecond, burst);
+    }
+
+    /**
+     * Returns the key of the client's bucket, or null if no client header is configured.
+     */
+    public String client(HttpServletRequest request) {
+        if (clientHeader == null || clientHeader.isEmpty()) {
+            return null;
+        }
+        String client = request.getHeader(clientHeader);
+        return client == null || client.isEmpty() ? request.getRemoteAddr() : client;
+    }
+
+    /**
+     * Takes a token from the bucket of the client. Returns 0 if the request may go on, otherwise the
+     * nanoseconds until the client has a token again. A null client is not limited.
+     */
+    public long tryTake(String client) {
+        double rate = perSecond;
+        if (client == null || rate <= 0) {
+            return 0;
+        }
+        long wait = buckets.get(client, key -> new TokenBucket()).tryTake(rate, burst, System.nanoTime());
+        if (wait > 0) {
+            rateLimited.increment();
+        }
+        return wait;
+    }
+
+    public ConcurrencyLimit group(String name) {
+        return name == null ? null : groups.get(name);
+    }
+
+    public synchronized void setRate(double perSecond, double burst) {
+        if (perSecond < 0 || burst < 1) {
+            throw new IllegalArgumentException("The rate must not be negative and the burst must be at least 1");
+        }
+        this.perSecond = perSecond;
+        this.burst = burst;
+    }
+
+    /**
+     * Changes the {@link #RATE} or the limits of a group. Limits missing from the map are kept. Returns false if
+     * there is no such group.
+     */
+    public synchronized boolean update(String name, Map<String, Number> limits) {
+        if (RATE.equals(name)) {
+            setRate(value(limits, "perSecond", perSecond), value(limits, "burst", burst));
+            return true;
+        }
+        ConcurrencyLimit group = groups.get(name);
+        if (group == null) {
+            return false;
+        }
+        group.setLimits((int) value(limits, "maxConcurrent", group.getMaxConcurrent()),
+                (int) value(limits, "maxQueue", group.getMaxQueue()),
+                (long) value(limits, "maxWaitMillis", group.getMaxWaitMillis()));
+        return true;
+    }
+
+    public Map<String, Object> report() {
+        Map<String, Object> rate = new LinkedHashMap<>();
+        rate.put("perSecond", perSecond);
+        rate.put("burst", burst);
+        rate.put("clients", buckets.estimatedSize());
+        rate.put("limited", rateLimited.sum());
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put(RATE, rate);
+        groups.forEach((name, group) -> report.put(name, group.report()));
+        return report;
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        List<Metric<?>> metrics = new ArrayList<>();
+        metrics.add(new Metric<>("admission.rate.clients", buckets.estimatedSize()));
+        metrics.add(new Metric<>("admission.rate.limited", rateLimited.sum()));
+        groups.forEach((name, group) -> group.report().forEach((key, value) -> {
+            if (value instanceof Number) {
+                metrics.add(new Metric<>("admission." + name + "." + key, (Number) value));
+            }
+        }));
+        return metrics;
+    }
+
+    private static double value(Map<String, Number> limits, String key, double current) {
+        Number value = limits.get(key);
+        return value == null ? current : value.doubleValue();
+    }
+
+}
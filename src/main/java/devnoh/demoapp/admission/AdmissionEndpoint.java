@@ -0,0 +1,25 @@
+package devnoh.demoapp.admission;
+
+import org.springframework.boot.actuate.endpoint.AbstractEndpoint;
+
+import java.util.Map;
+
+/**
+ * Reports the admission limits and counters at {@code /admission}. The limits are changed through the
+ * {@link AdmissionMvcEndpoint}.
+ */
+public class AdmissionEndpoint extends AbstractEndpoint<Map<String, Object>> {
+
+    private final AdmissionControl admissionControl;
+
+    public AdmissionEndpoint(AdmissionControl admissionControl) {
+        super("admission");
+        this.admissionControl = admissionControl;
+    }
+
+    @Override
+    public Map<String, Object> invoke() {
+        return admissionControl.report();
+    }
+
+}
@@ -0,0 +1,104 @@
+package devnoh.demoapp.admission;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Admits requests to {@code /products} and {@code /students} before they reach the controller. A client out of
+ * tokens gets a 429, and a request shed by the {@link ConcurrencyLimit} of its group gets a 503, both with a
+ * {@code Retry-After} header.
+ *
+ * The slot of an asynchronous request is held until its async dispatch completes.
+ */
+public class AdmissionInterceptor extends HandlerInterceptorAdapter {
+
+    public static final String PRODUCT_READS = "product-reads";
+
+    public static final String PRODUCT_WRITES = "product-writes";
+
+    public static final String STUDENT_READS = "student-reads";
+
+    private static final String SLOT = AdmissionInterceptor.class.getName() + ".slot";
+
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    private final AdmissionControl admissionControl;
+
+    private final long retryAfterSeconds;
+
+    public AdmissionInterceptor(AdmissionControl admissionControl, long retryAfterSeconds) {
+        this.admissionControl = admissionControl;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+
+        long wait = admissionControl.tryTake(admissionControl.client(request));
+        if (wait > 0) {
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, TimeUnit.NANOSECONDS.toSeconds(wait - 1) + 1);
+            return false;
+        }
+
+        ConcurrencyLimit group = admissionControl.group(group(request));
+        if (group == null) {
+            return true;
+        }
+        boolean admitted;
+        try {
+            admitted = group.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, retryAfterSeconds);
+            return false;
+        }
+        request.setAttribute(SLOT, group);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        ConcurrencyLimit group = (ConcurrencyLimit) request.getAttribute(SLOT);
+        if (group != null) {
+            request.removeAttribute(SLOT);
+            group.release();
+        }
+    }
+
+    String group(HttpServletRequest request) {
+        String path = urlPathHelper.getLookupPathForRequest(request);
+        HttpMethod method = HttpMethod.resolve(request.getMethod());
+        boolean read = method == HttpMethod.GET || method == HttpMethod.HEAD || path.equals("/products/lookup");
+        if (path.equals("/products") || path.startsWith("/products/")) {
+            return read ? PRODUCT_READS : PRODUCT_WRITES;
+        }
+        if (read && (path.equals("/students") || path.startsWith("/students/"))) {
+            return STUDENT_READS;
+        }
+        return null;
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds)
+            throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.sendError(status.value(), status.getReasonPhrase());
+    }
+
+}
@@ -0,0 +1,45 @@
+package devnoh.demoapp.admission;
+
+import org.springframework.boot.actuate.endpoint.mvc.EndpointMvcAdapter;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.Map;
+
+/**
+ * Changes admission limits at runtime, for example {@code POST /admission/rate} with
+ * {@code {"perSecond": 50, "burst": 100}}, or {@code POST /admission/product-reads} with
+ * {@code {"maxConcurrent": 20, "maxQueue": 50, "maxWaitMillis": 100}}. Answers the new report.
+ */
+public class AdmissionMvcEndpoint extends EndpointMvcAdapter {
+
+    private final AdmissionControl admissionControl;
+
+    public AdmissionMvcEndpoint(AdmissionEndpoint delegate, AdmissionControl admissionControl) {
+        super(delegate);
+        this.admissionControl = admissionControl;
+    }
+
+    @PostMapping(value = "/{name}",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public Object update(@PathVariable String name, @RequestBody Map<String, Number> limits) {
+        if (!getDelegate().isEnabled()) {
+            return getDisabledResponse();
+        }
+        try {
+            if (!admissionControl.update(name, limits)) {
+                return ResponseEntity.notFound().build();
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        return getDelegate().invoke();
+    }
+
+}
@@ -0,0 +1,102 @@
+package devnoh.demoapp.admission;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the number of requests of an endpoint group that run at once.
+ *
+ * A request that finds every slot taken waits for one, but at most {@code maxWaitMillis} and only while fewer
+ * than {@code maxQueue} requests are already waiting. Otherwise it is shed, so once the queueing delay reaches
+ * the threshold requests are turned away at once instead of piling up. The limits can be changed at any time.
+ */
+public class ConcurrencyLimit {
+
+    private int maxConcurrent;
+
+    private int maxQueue;
+
+    private long maxWaitMillis;
+
+    private int active;
+
+    private int waiting;
+
+    private long admitted;
+
+    private long shed;
+
+    public ConcurrencyLimit(int maxConcurrent, int maxQueue, long maxWaitMillis) {
+        setLimits(maxConcurrent, maxQueue, maxWaitMillis);
+    }
+
+    /**
+     * Takes a slot, waiting for one if needed. Returns false if the request is shed; it then holds no slot.
+     */
+    public synchronized boolean acquire() throws InterruptedException {
+        if (active >= maxConcurrent) {
+            if (waiting >= maxQueue || maxWaitMillis <= 0) {
+                shed++;
+                return false;
+            }
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+            waiting++;
+            try {
+                while (active >= maxConcurrent) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        shed++;
+                        return false;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+            } finally {
+                waiting--;
+            }
+        }
+        active++;
+        admitted++;
+        return true;
+    }
+
+    public synchronized void release() {
+        active--;
+        notify();
+    }
+
+    public synchronized void setLimits(int maxConcurrent, int maxQueue, long maxWaitMillis) {
+        if (maxConcurrent < 0 || maxQueue < 0 || maxWaitMillis < 0) {
+            throw new IllegalArgumentException("Limits must not be negative");
+        }
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = maxQueue;
+        this.maxWaitMillis = maxWaitMillis;
+        notifyAll();
+    }
+
+    public synchronized int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public synchronized int getMaxQueue() {
+        return maxQueue;
+    }
+
+    public synchronized long getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    public synchronized Map<String, Object> report() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("maxConcurrent", maxConcurrent);
+        report.put("maxQueue", maxQueue);
+        report.put("maxWaitMillis", maxWaitMillis);
+        report.put("active", active);
+        report.put("waiting", waiting);
+        report.put("admitted", admitted);
+        report.put("shed", shed);
+        return report;
+    }
+
+}
@@ -0,0 +1,32 @@
+package devnoh.demoapp.admission;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket of one client. The rate and the burst are passed on each call, so a change applies to every
+ * client at once.
+ */
+class TokenBucket {
+
+    private double tokens = -1;
+
+    private long refilledAt;
+
+    /**
+     * Takes a token. Returns 0 if one was available, otherwise the nanoseconds until the next one is.
+     */
+    synchronized long tryTake(double perSecond, double burst, long now) {
+        if (tokens < 0) {
+            tokens = burst;
+        } else {
+            tokens = Math.min(burst, tokens + (now - refilledAt) * perSecond / TimeUnit.SECONDS.toNanos(1));
+        }
+        refilledAt = now;
+        if (tokens >= 1) {
+            tokens--;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) * TimeUnit.SECONDS.toNanos(1) / perSecond);
+    }
+
+}
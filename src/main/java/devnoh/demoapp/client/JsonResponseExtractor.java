@@ -0,0 +1,94 @@
+package devnoh.demoapp.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.ResponseExtractor;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Parses a JSON response body straight from the response stream, without buffering it into a String first.
+ *
+ * Bodies larger than {@code maxResponseSize} bytes are rejected, either up front from the Content-Length
+ * header or while reading.
+ */
+public class JsonResponseExtractor<T> implements ResponseExtractor<T> {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final ObjectReader reader;
+
+    private final long maxResponseSize;
+
+    public JsonResponseExtractor(Class<T> type, long maxResponseSize) {
+        this.reader = OBJECT_MAPPER.readerFor(type);
+        this.maxResponseSize = maxResponseSize;
+    }
+
+    @Override
+    public T extractData(ClientHttpResponse response) throws IOException {
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            throw new RestClientException("Unexpected status: " + response.getStatusCode());
+        }
+        long contentLength = response.getHeaders().getContentLength();
+        if (contentLength > maxResponseSize) {
+            throw new IOException("Response body of " + contentLength + " bytes exceeds " + maxResponseSize);
+        }
+        try (InputStream body = new LimitedInputStream(response.getBody(), maxResponseSize)) {
+            return reader.readValue(body);
+        }
+    }
+
+    private static class LimitedInputStream extends FilterInputStream {
+
+        private final long limit;
+
+        private long count;
+
+        LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count(skipped);
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        private void count(long n) throws IOException {
+            count += n;
+            if (count > limit) {
+                throw new IOException("Response body exceeds " + limit + " bytes");
+            }
+        }
+    }
+
+}
@@ -1,36 +1,125 @@
 package devnoh.demoapp.client;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
 @Component
 @Slf4j
-public class OtherRestClient {
+public class OtherRestClient implements PublicMetrics {
+
+    private static final String UUID_URL = "http://httpbin.org/uuid";
 
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    @Qualifier("restClientExecutor")
+    private Executor executor;
+
+    @Autowired
+    @Qualifier("uuidRefillExecutor")
+    private Executor refillExecutor;
+
+    @Value("${rest.client.max-response-size:1048576}")
+    private long maxResponseSize;
+
+    @Value("${uuid.pool.enabled:false}")
+    private boolean uuidPoolEnabled;
+
+    @Value("${uuid.pool.low-watermark:100}")
+    private int uuidPoolLowWatermark;
+
+    @Value("${uuid.pool.high-watermark:500}")
+    private int uuidPoolHighWatermark;
+
+    @Value("${uuid.pool.remote-batch-size:20}")
+    private int uuidPoolRemoteBatchSize;
+
+    @Value("${uuid.pool.refill-timeout:500}")
+    private long uuidPoolRefillTimeout;
+
+    private JsonResponseExtractor<ApiResult> responseExtractor;
+
+    private UuidPool uuidPool;
+
     public OtherRestClient() {
     }
 
+    @PostConstruct
+    public void init() {
+        responseExtractor = new JsonResponseExtractor<>(ApiResult.class, maxResponseSize);
+        if (uuidPoolEnabled) {
+            uuidPool = new UuidPool(uuidPoolLowWatermark, uuidPoolHighWatermark, uuidPoolRemoteBatchSize,
+                    uuidPoolRefillTimeout, this::fetchUuids);
+            uuidPool.start();
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (uuidPool != null) {
+            uuidPool.shutdown();
+        }
+    }
+
+    /**
+     * Takes a UUID from the prefetched pool when {@code uuid.pool.enabled} is set, otherwise fetches one.
+     */
     public String getUuid() {
-        try {
-            ResponseEntity<String> response = restTemplate.getForEntity("http://httpbin.org/uuid", String.class);
+        if (uuidPool != null) {
+            return uuidPool.take();
+        }
+        return fetchUuid();
+    }
 
-            String responseBody = response.getBody();
-            log.debug("statusCode={}, responseBody={}", response.getStatusCode(), responseBody);
+    /**
+     * Fetches a UUID on the REST client executor, or takes one from the pool when it is enabled. Calls are not
+     * coalesced, since every caller expects a distinct UUID.
+     */
+    public CompletableFuture<String> getUuidAsync() {
+        if (uuidPool != null) {
+            return CompletableFuture.completedFuture(uuidPool.take());
+        }
+        try {
+            return CompletableFuture.supplyAsync(this::fetchUuid, executor);
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<String> future = new CompletableFuture<>();
+            future.completeExceptionally(new RestClientException("Failed to get an UUID.", e));
+            return future;
+        }
+    }
 
-            if (!response.getStatusCode().is2xxSuccessful()) {
-                throw new RuntimeException(responseBody);
-            }
+    @Override
+    public Collection<Metric<?>> metrics() {
+        return uuidPool != null ? uuidPool.metrics() : Collections.emptyList();
+    }
 
-            ApiResult apiResult = new ObjectMapper().readValue(responseBody, ApiResult.class);
+    private String fetchUuid() {
+        try {
+            ApiResult apiResult = restTemplate.execute(UUID_URL, HttpMethod.GET, null, responseExtractor);
+            log.debug("uuid={}", apiResult.getUuid());
             return apiResult.getUuid();
 
         } catch (Throwable t) {
@@ -39,6 +128,34 @@ public class OtherRestClient {
         }
     }
 
+    /**
+     * Fetches up to {@code count} UUIDs concurrently on the refill executor, returning whatever arrived within
+     * {@code timeout} ms. The refill executor is bounded on its own, so refills never crowd out async callers.
+     */
+    private List<String> fetchUuids(int count, long timeout) {
+        List<CompletableFuture<String>> futures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            try {
+                futures.add(CompletableFuture.supplyAsync(this::fetchUuid, refillExecutor));
+            } catch (RejectedExecutionException e) {
+                break;
+            }
+        }
+        long deadline = System.currentTimeMillis() + timeout;
+        List<String> uuids = new ArrayList<>(futures.size());
+        for (CompletableFuture<String> future : futures) {
+            try {
+                uuids.add(future.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS));
+            } catch (TimeoutException | ExecutionException e) {
+                future.cancel(false);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return uuids;
+    }
+
     @Getter
     @Setter
     static class ApiResult {
@@ -1,38 +1,48 @@
 package devnoh.demoapp.client;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import devnoh.demoapp.util.SingleFlight;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
 @Component
 @Slf4j
 public class SomeRestClient {
 
+    private static final String ORIGIN_IP_URL = "http://httpbin.org/ip";
+
     private RestTemplate restTemplate;
 
+    private JsonResponseExtractor<ApiResult> responseExtractor;
+
+    private Executor executor;
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
     @Autowired
-    public SomeRestClient(RestTemplateBuilder restTemplateBuilder) {
+    public SomeRestClient(RestTemplateBuilder restTemplateBuilder,
+                          @Value("${rest.client.max-response-size:1048576}") long maxResponseSize,
+                          @Qualifier("restClientExecutor") Executor executor) {
         restTemplate = restTemplateBuilder.build();
+        responseExtractor = new JsonResponseExtractor<>(ApiResult.class, maxResponseSize);
+        this.executor = executor;
     }
 
     public String getOriginIp() {
         try {
-            ResponseEntity<String> response = restTemplate.getForEntity("http://httpbin.org/ip", String.class);
-
-            String responseBody = response.getBody();
-            log.debug("statusCode={}, responseBody={}", response.getStatusCode(), responseBody);
-
-            if (!response.getStatusCode().is2xxSuccessful()) {
-                throw new RuntimeException(responseBody);
-            }
-
-            ApiResult apiResult = new ObjectMapper().readValue(responseBody, ApiResult.class);
+            ApiResult apiResult = restTemplate.execute(ORIGIN_IP_URL, HttpMethod.GET, null, responseExtractor);
+            log.debug("origin={}", apiResult.getOrigin());
             return apiResult.getOrigin();
 
         } catch (Throwable t) {
@@ -41,6 +51,22 @@ public class SomeRestClient {
         }
     }
 
+    /**
+     * Runs {@link #getOriginIp()} on the REST client executor. Callers that ask while a lookup is in flight
+     * share its result instead of making another upstream call.
+     */
+    public CompletableFuture<String> getOriginIpAsync() {
+        return singleFlight.execute(ORIGIN_IP_URL, () -> {
+            try {
+                return CompletableFuture.supplyAsync(this::getOriginIp, executor);
+            } catch (RejectedExecutionException e) {
+                CompletableFuture<String> future = new CompletableFuture<>();
+                future.completeExceptionally(new RestClientException("Failed to get the origin IP address.", e));
+                return future;
+            }
+        });
+    }
+
     @Getter
     @Setter
     static class ApiResult {
@@ -0,0 +1,153 @@
+package devnoh.demoapp.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * In-memory pool of UUIDs that is refilled in the background.
+ *
+ * When the pool drops below the low watermark, a single refill thread tops it up to the high watermark. It keeps
+ * asking the remote source for batches of up to {@code remoteBatchSize} UUIDs until the pool is full or
+ * {@code refillTimeout} ms have passed, and generates only the remaining shortfall locally. {@link #take()} never
+ * waits: if the pool is empty it generates a UUID on the spot.
+ */
+@Slf4j
+public class UuidPool {
+
+    private final BlockingQueue<String> pool;
+
+    private final int lowWatermark;
+
+    private final int highWatermark;
+
+    private final int remoteBatchSize;
+
+    private final long refillTimeout;
+
+    private final BiFunction<Integer, Long, List<String>> remoteSource;
+
+    private final ExecutorService refiller = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "uuid-pool-refill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean refilling = new AtomicBoolean();
+
+    private final LongAdder remote = new LongAdder();
+
+    private final LongAdder local = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private volatile long lastRefillMillis;
+
+    /**
+     * @param remoteSource called with the number of UUIDs wanted and the time budget in ms; may return fewer
+     */
+    public UuidPool(int lowWatermark, int highWatermark, int remoteBatchSize, long refillTimeout,
+                    BiFunction<Integer, Long, List<String>> remoteSource) {
+        if (lowWatermark < 0 || highWatermark <= lowWatermark) {
+            throw new IllegalArgumentException("Expected 0 <= lowWatermark < highWatermark");
+        }
+        this.pool = new ArrayBlockingQueue<>(highWatermark);
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = highWatermark;
+        this.remoteBatchSize = remoteBatchSize;
+        this.refillTimeout = refillTimeout;
+        this.remoteSource = remoteSource;
+    }
+
+    public void start() {
+        triggerRefill();
+    }
+
+    public void shutdown() {
+        refiller.shutdownNow();
+    }
+
+    public String take() {
+        String uuid = pool.poll();
+        if (pool.size() < lowWatermark) {
+            triggerRefill();
+        }
+        if (uuid == null) {
+            misses.increment();
+            local.increment();
+            return UUID.randomUUID().toString();
+        }
+        return uuid;
+    }
+
+    public int depth() {
+        return pool.size();
+    }
+
+    public Collection<Metric<?>> metrics() {
+        List<Metric<?>> metrics = new ArrayList<>();
+        metrics.add(new Metric<>("uuid.pool.depth", pool.size()));
+        metrics.add(new Metric<>("uuid.pool.refill.latency", lastRefillMillis));
+        metrics.add(new Metric<>("uuid.pool.remote", remote.sum()));
+        metrics.add(new Metric<>("uuid.pool.local", local.sum()));
+        metrics.add(new Metric<>("uuid.pool.misses", misses.sum()));
+        return metrics;
+    }
+
+    private void triggerRefill() {
+        if (!refilling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refiller.execute(this::refill);
+        } catch (RejectedExecutionException e) {
+            refilling.set(false);
+        }
+    }
+
+    private void refill() {
+        long start = System.currentTimeMillis();
+        long deadline = start + refillTimeout;
+        try {
+            long remaining;
+            while (remoteBatchSize > 0 && pool.remainingCapacity() > 0
+                    && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                List<String> fetched;
+                try {
+                    fetched = remoteSource.apply(Math.min(pool.remainingCapacity(), remoteBatchSize), remaining);
+                } catch (RuntimeException e) {
+                    log.warn("Failed to fetch UUIDs, generating them locally: {}", e.getMessage());
+                    break;
+                }
+                if (fetched.isEmpty()) {
+                    break;
+                }
+                for (String uuid : fetched) {
+                    if (pool.offer(uuid)) {
+                        remote.increment();
+                    }
+                }
+            }
+            while (pool.remainingCapacity() > 0 && pool.offer(UUID.randomUUID().toString())) {
+                local.increment();
+            }
+        } finally {
+            lastRefillMillis = System.currentTimeMillis() - start;
+            refilling.set(false);
+        }
+        log.debug("Refilled UUID pool to {} in {} ms", pool.size(), lastRefillMillis);
+    }
+
+}
@@ -0,0 +1,65 @@
+package devnoh.demoapp.config;
+
+import devnoh.demoapp.admission.AdmissionControl;
+import devnoh.demoapp.admission.AdmissionEndpoint;
+import devnoh.demoapp.admission.AdmissionInterceptor;
+import devnoh.demoapp.admission.AdmissionMvcEndpoint;
+import devnoh.demoapp.admission.ConcurrencyLimit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.handler.MappedInterceptor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Admission control for the {@code /products} and {@code /students} controllers. The interceptor is registered
+ * as a {@link MappedInterceptor} bean, which the handler mappings pick up by themselves.
+ */
+@Configuration
+@ConditionalOnProperty(name = "admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionConfig {
+
+    @Bean
+    public AdmissionControl admissionControl(Environment environment,
+                                             @Value("${admission.rate.client-header:}") String clientHeader,
+                                             @Value("${admission.rate.max-clients:100000}") long maxClients,
+                                             @Value("${admission.rate.per-second:100}") double perSecond,
+                                             @Value("${admission.rate.burst:200}") double burst) {
+        Map<String, ConcurrencyLimit> groups = new LinkedHashMap<>();
+        groups.put(AdmissionInterceptor.PRODUCT_READS, limit(environment, AdmissionInterceptor.PRODUCT_READS, 100));
+        groups.put(AdmissionInterceptor.PRODUCT_WRITES, limit(environment, AdmissionInterceptor.PRODUCT_WRITES, 20));
+        groups.put(AdmissionInterceptor.STUDENT_READS, limit(environment, AdmissionInterceptor.STUDENT_READS, 100));
+        return new AdmissionControl(groups, clientHeader, maxClients, perSecond, burst);
+    }
+
+    @Bean
+    public MappedInterceptor admissionInterceptor(AdmissionControl admissionControl,
+                                                  @Value("${admission.retry-after-seconds:1}") long retryAfter) {
+        return new MappedInterceptor(new String[] {"/products/**", "/students/**"},
+                new AdmissionInterceptor(admissionControl, retryAfter));
+    }
+
+    @Bean
+    public AdmissionEndpoint admissionEndpoint(AdmissionControl admissionControl) {
+        return new AdmissionEndpoint(admissionControl);
+    }
+
+    @Bean
+    public AdmissionMvcEndpoint admissionMvcEndpoint(AdmissionEndpoint admissionEndpoint,
+                                                     AdmissionControl admissionControl) {
+        return new AdmissionMvcEndpoint(admissionEndpoint, admissionControl);
+    }
+
+    private static ConcurrencyLimit limit(Environment environment, String group, int maxConcurrent) {
+        String prefix = "admission." + group + ".";
+        return new ConcurrencyLimit(
+                environment.getProperty(prefix + "max-concurrent", Integer.class, maxConcurrent),
+                environment.getProperty(prefix + "max-queue", Integer.class, maxConcurrent),
+                environment.getProperty(prefix + "max-wait-ms", Long.class, 100L));
+    }
+
+}
@@ -0,0 +1,60 @@
+package devnoh.demoapp.config;
+
+import devnoh.demoapp.metrics.StartupTimings;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the beans left lazy by the {@code fast-startup} profile in the background once the application is
+ * ready, so that subsystems nobody has used yet are warm before the first request needs them. Disabled with
+ * {@code startup.warm-up=false}.
+ */
+@Component
+@Profile("fast-startup")
+@Slf4j
+public class DeferredBeanInitializer {
+
+    @Autowired
+    private ConfigurableListableBeanFactory beanFactory;
+
+    @Autowired
+    private StartupTimings startupTimings;
+
+    @Value("${startup.warm-up:true}")
+    private boolean warmUp;
+
+    @Async("startupExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!warmUp) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        int created = 0;
+        for (String name : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(name);
+            if (!definition.isSingleton() || definition.isAbstract() || !definition.isLazyInit()
+                    || beanFactory.containsSingleton(name)) {
+                continue;
+            }
+            try {
+                beanFactory.getBean(name);
+                created++;
+            } catch (BeansException e) {
+                log.warn("Deferred bean {} could not be created: {}", name, e.getMessage());
+            }
+        }
+        startupTimings.stopRecording();
+        log.info("Created {} deferred beans in {} ms", created, System.currentTimeMillis() - start);
+    }
+
+}
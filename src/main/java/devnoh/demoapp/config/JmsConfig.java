@@ -0,0 +1,110 @@
+package devnoh.demoapp.config;
+
+import devnoh.demoapp.jms.BatchMessageListenerContainer;
+import devnoh.demoapp.jms.DestinationJmsListenerContainerFactory;
+import devnoh.demoapp.jms.JmsBatchMessageListener;
+import devnoh.demoapp.jms.JmsListenerSettings;
+import devnoh.demoapp.service.ProductWriteBehind;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jms.DefaultJmsListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jms.config.DefaultJmsListenerContainerFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import javax.jms.ConnectionFactory;
+
+@Configuration
+public class JmsConfig {
+
+    @Bean
+    public JmsListenerSettings jmsListenerSettings(Environment environment) {
+        return new JmsListenerSettings(environment);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "jms.listener.batch-enabled", havingValue = "true")
+    public BatchMessageListenerContainer defaultQueueListenerContainer(
+            ConnectionFactory connectionFactory, JmsBatchMessageListener listener,
+            GaugeService gaugeService, CounterService counterService, JmsListenerSettings settings,
+            @Value("${jms.queue:default.queue}") String queue,
+            @Value("${jms.listener.default.concurrency:1}") String concurrency,
+            @Value("${jms.listener.default.batch-size:100}") int batchSize,
+            @Value("${jms.listener.default.batch-timeout:200}") long batchTimeout) {
+        BatchMessageListenerContainer container = new BatchMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setDestinationName(queue);
+        container.setConcurrency(settings.concurrency(queue, concurrency));
+        container.setMaxBatchSize(settings.batchSize(queue, batchSize));
+        container.setBatchTimeout(settings.batchTimeout(queue, batchTimeout));
+        container.setBatchMessageListener(listener);
+        container.setGaugeService(gaugeService);
+        container.setCounterService(counterService);
+        return container;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "product.write-behind.enabled", havingValue = "true")
+    public BatchMessageListenerContainer productWriteBehindListenerContainer(
+            ConnectionFactory connectionFactory, ProductWriteBehind listener,
+            GaugeService gaugeService, CounterService counterService, JmsListenerSettings settings,
+            @Value("${product.write-behind.queue:product.write-behind}") String queue,
+            @Value("${product.write-behind.batch-size:500}") int batchSize,
+            @Value("${product.write-behind.batch-timeout:200}") long batchTimeout) {
+        BatchMessageListenerContainer container = new BatchMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setDestinationName(queue);
+        // A single consumer, so later writes of a code are never persisted before earlier ones.
+        container.setConcurrency("1");
+        container.setMaxBatchSize(settings.batchSize(queue, batchSize));
+        container.setBatchTimeout(settings.batchTimeout(queue, batchTimeout));
+        container.setBatchMessageListener(listener);
+        container.setGaugeService(gaugeService);
+        container.setCounterService(counterService);
+        return container;
+    }
+
+    /**
+     * Listener containers for queues, with the concurrency configured for each destination.
+     */
+    @Bean
+    public DefaultJmsListenerContainerFactory jmsListenerContainerFactory(
+            DefaultJmsListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory,
+            JmsListenerSettings settings) {
+        DefaultJmsListenerContainerFactory factory = new DestinationJmsListenerContainerFactory(settings);
+        configurer.configure(factory, connectionFactory);
+        return factory;
+    }
+
+    /**
+     * Listener containers for topics. Each node subscribes on its own, non-durable, so it only receives
+     * messages published while it is running.
+     */
+    @Bean
+    public DefaultJmsListenerContainerFactory topicListenerContainerFactory(
+            DefaultJmsListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory,
+            JmsListenerSettings settings) {
+        DefaultJmsListenerContainerFactory factory = new DestinationJmsListenerContainerFactory(settings);
+        configurer.configure(factory, connectionFactory);
+        factory.setPubSubDomain(true);
+        factory.setSessionTransacted(false);
+        return factory;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor jmsSendExecutor(@Value("${jms.send.pool-size:4}") int poolSize,
+                                                  @Value("${jms.send.queue-capacity:10000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("jms-send-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+
+}
@@ -0,0 +1,93 @@
+package devnoh.demoapp.config;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.jms.annotation.JmsListener;
+import org.springframework.jms.annotation.JmsListeners;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.annotation.Schedules;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Marks every application bean lazy, so that the embedded Mongo, the ActiveMQ broker and the JPA repositories and
+ * services start on first use rather than before the application is ready. The JPA entity manager factory, and so
+ * H2 and Hibernate, are still started with the context. Lifecycle beans such as listener containers are started
+ * with the context too.
+ *
+ * Beans named in {@code startup.lazy.exclude} stay eager, and so do beans with {@code @JmsListener} or
+ * {@code @Scheduled} methods: those are only registered when the bean is created, and nothing else uses the bean.
+ */
+public class LazyInitBeanFactoryPostProcessor implements BeanFactoryPostProcessor, EnvironmentAware {
+
+    private static final List<Class<? extends Annotation>> LISTENER_ANNOTATIONS =
+            Arrays.asList(JmsListener.class, JmsListeners.class, Scheduled.class, Schedules.class);
+
+    private Set<String> excluded;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        excluded = StringUtils.commaDelimitedListToSet(
+                StringUtils.trimAllWhitespace(environment.getProperty("startup.lazy.exclude", "")));
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+        for (String name : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(name);
+            if (definition.isSingleton() && !definition.isAbstract()
+                    && definition.getRole() == BeanDefinition.ROLE_APPLICATION && !excluded.contains(name)
+                    && !hasListenerMethods(definition, beanFactory.getBeanClassLoader())) {
+                definition.setLazyInit(true);
+            }
+        }
+    }
+
+    private static boolean hasListenerMethods(BeanDefinition definition, ClassLoader classLoader) {
+        Class<?> type = beanType(definition, classLoader);
+        if (type == null) {
+            return false;
+        }
+        for (Method method : ReflectionUtils.getUniqueDeclaredMethods(type)) {
+            for (Class<? extends Annotation> annotation : LISTENER_ANNOTATIONS) {
+                if (AnnotatedElementUtils.hasAnnotation(method, annotation)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Class<?> beanType(BeanDefinition definition, ClassLoader classLoader) {
+        String className = definition.getBeanClassName();
+        if (definition instanceof AnnotatedBeanDefinition) {
+            MethodMetadata factoryMethod = ((AnnotatedBeanDefinition) definition).getFactoryMethodMetadata();
+            if (factoryMethod != null) {
+                className = factoryMethod.getReturnTypeName();
+            }
+        }
+        if (className == null) {
+            return null;
+        }
+        try {
+            return ClassUtils.forName(className, classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,117 @@
+package devnoh.demoapp.config;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One pooled, keep-alive HTTP client shared by every {@link RestTemplate} built from the
+ * {@link RestTemplateBuilder}.
+ */
+@Configuration
+public class RestClientConfig {
+
+    @Value("${rest.client.max-total:100}")
+    private int maxTotal;
+
+    @Value("${rest.client.max-per-route:20}")
+    private int maxPerRoute;
+
+    @Value("${rest.client.connect-timeout:2000}")
+    private int connectTimeout;
+
+    @Value("${rest.client.connection-request-timeout:1000}")
+    private int connectionRequestTimeout;
+
+    @Value("${rest.client.read-timeout:5000}")
+    private int readTimeout;
+
+    @Value("${rest.client.keep-alive:30000}")
+    private long keepAlive;
+
+    @Bean
+    public PoolingHttpClientConnectionManager httpClientConnectionManager() {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setValidateAfterInactivity(2000);
+        return connectionManager;
+    }
+
+    @Bean
+    public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager connectionManager) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(connectTimeout)
+                .setConnectionRequestTimeout(connectionRequestTimeout)
+                .setSocketTimeout(readTimeout)
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(keepAliveStrategy())
+                .evictExpiredConnections()
+                .evictIdleConnections(keepAlive, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Bean
+    public HttpComponentsClientHttpRequestFactory clientHttpRequestFactory(CloseableHttpClient httpClient) {
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    @Bean
+    public RestTemplateCustomizer pooledRequestFactoryCustomizer(HttpComponentsClientHttpRequestFactory factory) {
+        return restTemplate -> restTemplate.setRequestFactory(factory);
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor restClientExecutor(
+            @Value("${rest.client.async.pool-size:20}") int poolSize,
+            @Value("${rest.client.async.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("rest-client-");
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor uuidRefillExecutor(
+            @Value("${uuid.pool.refill-concurrency:4}") int poolSize,
+            @Value("${uuid.pool.refill-queue-capacity:20}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("uuid-refill-");
+        return executor;
+    }
+
+    @Bean
+    public RestTemplate restTemplate(RestTemplateBuilder restTemplateBuilder) {
+        return restTemplateBuilder.build();
+    }
+
+    private ConnectionKeepAliveStrategy keepAliveStrategy() {
+        // Honour a shorter Keep-Alive header from the server, otherwise keep idle connections for keepAlive ms.
+        return (response, context) -> {
+            long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return duration > 0 ? Math.min(duration, keepAlive) : keepAlive;
+        };
+    }
+
+}
@@ -1,17 +1,12 @@
 package devnoh.demoapp.config;
 
-import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.jms.annotation.EnableJms;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.scheduling.annotation.EnableAsync;
 
 @Configuration
 @EnableJms
+@EnableAsync
 public class SpringConfig {
 
-    @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
-    }
-
 }
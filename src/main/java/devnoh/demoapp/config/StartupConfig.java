@@ -0,0 +1,44 @@
+package devnoh.demoapp.config;
+
+import devnoh.demoapp.metrics.StartupEndpoint;
+import devnoh.demoapp.metrics.StartupTimings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    public static StartupTimings startupTimings() {
+        return new StartupTimings();
+    }
+
+    @Bean
+    @Profile("fast-startup")
+    public static LazyInitBeanFactoryPostProcessor lazyInitBeanFactoryPostProcessor() {
+        return new LazyInitBeanFactoryPostProcessor();
+    }
+
+    @Bean
+    public StartupEndpoint startupEndpoint(StartupTimings startupTimings) {
+        return new StartupEndpoint(startupTimings);
+    }
+
+    /**
+     * Runs the work started once the application is ready, such as the deferred beans and the Mongo indexes.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor startupExecutor(@Value("${startup.executor.pool-size:2}") int poolSize,
+                                                  @Value("${startup.executor.queue-capacity:10}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("startup-");
+        return executor;
+    }
+
+}
@@ -0,0 +1,37 @@
+package devnoh.demoapp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executors for the asynchronous reads of the {@code /products} and {@code /students} controllers, turned on by
+ * {@code web.async.enabled}. JPA and Mongo lookups run on separate, bounded pools so that slow queries on one store
+ * can not starve reads from the other, nor tie up servlet threads.
+ */
+@Configuration
+public class WebAsyncConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor jpaExecutor(@Value("${web.async.jpa.pool-size:10}") int poolSize,
+                                              @Value("${web.async.jpa.queue-capacity:100}") int queueCapacity) {
+        return executor("jpa-", poolSize, queueCapacity);
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor mongoExecutor(@Value("${web.async.mongo.pool-size:10}") int poolSize,
+                                                @Value("${web.async.mongo.queue-capacity:100}") int queueCapacity) {
+        return executor("mongo-", poolSize, queueCapacity);
+    }
+
+    private static ThreadPoolTaskExecutor executor(String threadNamePrefix, int poolSize, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        return executor;
+    }
+
+}
@@ -1,27 +1,33 @@
 package devnoh.demoapp.domain;
 
 import lombok.Data;
+import org.hibernate.validator.constraints.NotBlank;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 
 @Entity
-@Table(name = "product")
+@Table(name = "product", indexes = @Index(name = "idx_product_active_name_id", columnList = "active, name, id"))
 @Data
 public class Product {
 
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     private Long id;
 
+    @NotBlank
     @Column(name = "code", unique = true, nullable = false)
     private String code;
 
+    @NotBlank
     @Column(name = "name", nullable = false)
     private String name;
 
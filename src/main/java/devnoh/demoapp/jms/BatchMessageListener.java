@@ -0,0 +1,9 @@
+package devnoh.demoapp.jms;
+
+import java.util.List;
+
+public interface BatchMessageListener {
+
+    void onMessages(List<String> messages) throws Exception;
+
+}
@@ -0,0 +1,150 @@
+package devnoh.demoapp.jms;
+
+import lombok.Setter;
+import org.springframework.boot.actuate.metrics.CounterService;
+import org.springframework.boot.actuate.metrics.GaugeService;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.jms.support.converter.MessageConverter;
+import org.springframework.jms.support.converter.SimpleMessageConverter;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.Session;
+
+/**
+ * A {@link DefaultMessageListenerContainer} that hands messages to a {@link BatchMessageListener} in groups.
+ *
+ * After the first message arrives, each consumer keeps draining until it has {@code maxBatchSize} messages
+ * or {@code batchTimeout} ms have passed, then invokes the listener once and commits the whole batch in the
+ * same local session transaction. If the listener throws, the batch is rolled back and redelivered.
+ *
+ * When a {@link GaugeService} is set, every batch records its size, processing time and queue lag (the age of
+ * its oldest message) under {@code jms.<destination>.*}.
+ */
+public class BatchMessageListenerContainer extends DefaultMessageListenerContainer {
+
+    private BatchMessageListener batchMessageListener;
+
+    @Setter
+    private int maxBatchSize = 100;
+
+    @Setter
+    private long batchTimeout = 200;
+
+    @Setter
+    private GaugeService gaugeService;
+
+    @Setter
+    private CounterService counterService;
+
+    private final MessageConverter textConverter = new SimpleMessageConverter();
+
+    public BatchMessageListenerContainer() {
+        setSessionTransacted(true);
+        setCacheLevel(CACHE_CONSUMER);
+    }
+
+    public void setBatchMessageListener(BatchMessageListener batchMessageListener) {
+        this.batchMessageListener = batchMessageListener;
+        // Only used if no consumer is cached, e.g. when an external transaction manager is configured.
+        setMessageListener((MessageListener) message -> {
+            try {
+                onMessages(Collections.singletonList(message));
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    @Override
+    protected boolean doReceiveAndExecute(Object invoker, Session session, MessageConsumer consumer,
+                                          TransactionStatus status) throws JMSException {
+        if (session == null || consumer == null) {
+            return super.doReceiveAndExecute(invoker, session, consumer, status);
+        }
+
+        List<Message> messages = receiveBatch(consumer);
+        if (messages.isEmpty()) {
+            noMessageReceived(invoker, session);
+            if (shouldCommitAfterNoMessageReceived(session)) {
+                commitIfNecessary(session, null);
+            }
+            return false;
+        }
+
+        messageReceived(invoker, session);
+        long start = System.currentTimeMillis();
+        try {
+            onMessages(messages);
+            commitIfNecessary(session, messages.get(messages.size() - 1));
+        } catch (Throwable ex) {
+            if (status != null) {
+                status.setRollbackOnly();
+            }
+            rollbackOnExceptionIfNecessary(session, ex);
+            handleListenerException(ex);
+            if (ex instanceof JMSException) {
+                throw (JMSException) ex;
+            }
+            return true;
+        }
+        recordMetrics(messages, start);
+        return true;
+    }
+
+    private List<Message> receiveBatch(MessageConsumer consumer) throws JMSException {
+        Message first = receiveMessage(consumer);
+        if (first == null) {
+            return Collections.emptyList();
+        }
+        List<Message> messages = new ArrayList<>(maxBatchSize);
+        messages.add(first);
+
+        long deadline = System.currentTimeMillis() + batchTimeout;
+        while (messages.size() < maxBatchSize && isRunning()) {
+            long remaining = deadline - System.currentTimeMillis();
+            Message message = remaining > 0 ? consumer.receive(remaining) : consumer.receiveNoWait();
+            if (message == null) {
+                break;
+            }
+            messages.add(message);
+        }
+        return messages;
+    }
+
+    private void onMessages(List<Message> messages) throws Exception {
+        List<String> texts = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            texts.add(String.valueOf(textConverter.fromMessage(message)));
+        }
+        batchMessageListener.onMessages(texts);
+    }
+
+    private void recordMetrics(List<Message> messages, long start) throws JMSException {
+        long now = System.currentTimeMillis();
+        long oldest = now;
+        for (Message message : messages) {
+            if (message.getJMSTimestamp() > 0) {
+                oldest = Math.min(oldest, message.getJMSTimestamp());
+            }
+        }
+        String prefix = "jms." + getDestinationDescription();
+        if (gaugeService != null) {
+            gaugeService.submit("histogram." + prefix + ".batch.size", messages.size());
+            gaugeService.submit("histogram." + prefix + ".lag", now - oldest);
+            gaugeService.submit("timer." + prefix + ".batch.latency", now - start);
+        }
+        if (counterService != null) {
+            counterService.increment("counter." + prefix + ".batches");
+        }
+    }
+
+}
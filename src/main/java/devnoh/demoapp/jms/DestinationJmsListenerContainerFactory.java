@@ -0,0 +1,31 @@
+package devnoh.demoapp.jms;
+
+import org.springframework.jms.config.AbstractJmsListenerEndpoint;
+import org.springframework.jms.config.DefaultJmsListenerContainerFactory;
+import org.springframework.jms.config.JmsListenerEndpoint;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+
+/**
+ * Applies the concurrency configured for an endpoint's destination, unless the {@code @JmsListener} sets its own.
+ */
+public class DestinationJmsListenerContainerFactory extends DefaultJmsListenerContainerFactory {
+
+    private final JmsListenerSettings settings;
+
+    public DestinationJmsListenerContainerFactory(JmsListenerSettings settings) {
+        this.settings = settings;
+    }
+
+    @Override
+    public DefaultMessageListenerContainer createListenerContainer(JmsListenerEndpoint endpoint) {
+        DefaultMessageListenerContainer container = super.createListenerContainer(endpoint);
+        if (endpoint instanceof AbstractJmsListenerEndpoint
+                && ((AbstractJmsListenerEndpoint) endpoint).getConcurrency() == null) {
+            String concurrency = settings.concurrency(container.getDestinationName());
+            if (concurrency != null) {
+                container.setConcurrency(concurrency);
+            }
+        }
+        return container;
+    }
+}
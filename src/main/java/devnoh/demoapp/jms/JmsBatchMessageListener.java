@@ -0,0 +1,21 @@
+package devnoh.demoapp.jms;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "jms.listener.batch-enabled", havingValue = "true")
+@Slf4j
+public class JmsBatchMessageListener implements BatchMessageListener {
+
+    @Override
+    public void onMessages(List<String> messages) {
+        log.info("{} messages received", messages.size());
+        for (String message : messages) {
+            log.debug("Message received: {}", message);
+        }
+    }
+}
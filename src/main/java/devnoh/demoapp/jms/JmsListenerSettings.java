@@ -0,0 +1,36 @@
+package devnoh.demoapp.jms;
+
+import org.springframework.core.env.Environment;
+
+/**
+ * Listener container settings keyed by destination, read from {@code jms.listener.destinations.<destination>.*}.
+ */
+public class JmsListenerSettings {
+
+    private static final String PREFIX = "jms.listener.destinations.";
+
+    private final Environment environment;
+
+    public JmsListenerSettings(Environment environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * The concurrency configured for the destination itself, or {@code null} if it has none.
+     */
+    public String concurrency(String destination) {
+        return environment.getProperty(PREFIX + destination + ".concurrency");
+    }
+
+    public String concurrency(String destination, String fallback) {
+        return environment.getProperty(PREFIX + destination + ".concurrency", fallback);
+    }
+
+    public int batchSize(String destination, int fallback) {
+        return environment.getProperty(PREFIX + destination + ".batch-size", Integer.class, fallback);
+    }
+
+    public long batchTimeout(String destination, long fallback) {
+        return environment.getProperty(PREFIX + destination + ".batch-timeout", Long.class, fallback);
+    }
+}
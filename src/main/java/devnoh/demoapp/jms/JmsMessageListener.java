@@ -1,14 +1,22 @@
 package devnoh.demoapp.jms;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.jms.annotation.JmsListener;
 import org.springframework.stereotype.Component;
 
 @Component
+@ConditionalOnProperty(name = "jms.listener.batch-enabled", havingValue = "false", matchIfMissing = true)
 @Slf4j
 public class JmsMessageListener {
 
-    @JmsListener(destination = "${jms.queue:default.queue}")
+    /**
+     * The concurrency configured for the queue, falling back to {@code jms.listener.default.concurrency}.
+     */
+    private static final String CONCURRENCY = "${jms.listener.destinations.${jms.queue:default.queue}.concurrency:"
+            + "${jms.listener.default.concurrency:1}}";
+
+    @JmsListener(destination = "${jms.queue:default.queue}", concurrency = CONCURRENCY)
     public void receive(String message) {
         log.info("Message received: {}", message);
     }
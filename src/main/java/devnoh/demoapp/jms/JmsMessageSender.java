@@ -3,9 +3,20 @@ package devnoh.demoapp.jms;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jms.connection.ConnectionFactoryUtils;
 import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.support.JmsUtils;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
 @Component
 @Slf4j
 public class JmsMessageSender {
@@ -16,8 +27,95 @@ public class JmsMessageSender {
     @Value(value = "${jms.queue:default.queue}")
     private String jmsQueue;
 
+    @Value(value = "${jms.send.batch-size:100}")
+    private int batchSize;
+
     public void send(String message) {
-        jmsTemplate.convertAndSend(jmsQueue, message);
-        log.info("Message sent: {}", message);
+        send(jmsQueue, message);
+    }
+
+    public void send(String destination, String message) {
+        jmsTemplate.convertAndSend(destination, message);
+        log.debug("Message sent: {}", message);
+    }
+
+    /**
+     * Publishes the message to a topic, so every subscriber receives a copy.
+     */
+    public void publish(String topic, String message) {
+        jmsTemplate.execute(session -> {
+            MessageProducer producer = session.createProducer(
+                    jmsTemplate.getDestinationResolver().resolveDestinationName(session, topic, true));
+            try {
+                producer.send(jmsTemplate.getMessageConverter().toMessage(message, session));
+            } finally {
+                JmsUtils.closeMessageProducer(producer);
+            }
+            return null;
+        }, false);
+        log.debug("Message published to {}: {}", topic, message);
+    }
+
+    /**
+     * Sends the messages from a single transacted session and producer, committing every
+     * {@code jms.send.batch-size} messages. If a send fails, the current batch is rolled back;
+     * batches committed before it stay sent.
+     */
+    public int sendAll(Collection<String> messages) {
+        return sendAll(jmsQueue, messages);
     }
+
+    public int sendAll(String destination, Collection<String> messages) {
+        ConnectionFactory connectionFactory = jmsTemplate.getConnectionFactory();
+        Connection connection = null;
+        Session session = null;
+        MessageProducer producer = null;
+        int sent = 0;
+        try {
+            connection = connectionFactory.createConnection();
+            session = connection.createSession(true, Session.SESSION_TRANSACTED);
+            producer = session.createProducer(
+                    jmsTemplate.getDestinationResolver().resolveDestinationName(session, destination, false));
+            int pending = 0;
+            for (String message : messages) {
+                producer.send(jmsTemplate.getMessageConverter().toMessage(message, session));
+                if (++pending == batchSize) {
+                    session.commit();
+                    sent += pending;
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                session.commit();
+                sent += pending;
+            }
+        } catch (JMSException e) {
+            rollbackQuietly(session);
+            throw JmsUtils.convertJmsAccessException(e);
+        } catch (RuntimeException e) {
+            rollbackQuietly(session);
+            throw e;
+        } finally {
+            JmsUtils.closeMessageProducer(producer);
+            JmsUtils.closeSession(session);
+            ConnectionFactoryUtils.releaseConnection(connection, connectionFactory, false);
+        }
+        log.debug("{} messages sent to {}", sent, destination);
+        return sent;
+    }
+
+    @Async("jmsSendExecutor")
+    public CompletableFuture<Void> sendAsync(String message) {
+        send(message);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private static void rollbackQuietly(Session session) {
+        try {
+            JmsUtils.rollbackIfNecessary(session);
+        } catch (JMSException e) {
+            log.warn("Could not roll back JMS session", e);
+        }
+    }
+
 }
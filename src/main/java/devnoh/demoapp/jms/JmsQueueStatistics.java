@@ -0,0 +1,85 @@
+package devnoh.demoapp.jms;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.activemq.broker.BrokerRegistry;
+import org.apache.activemq.broker.BrokerService;
+import org.apache.activemq.broker.region.Destination;
+import org.apache.activemq.command.ActiveMQQueue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jms.JmsException;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.support.JmsUtils;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import javax.jms.MapMessage;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageProducer;
+import javax.jms.TemporaryQueue;
+
+/**
+ * Reads queue depths from the broker. An embedded ({@code vm://}) broker is asked directly; any other broker is
+ * asked through the {@code ActiveMQ.Statistics.Destination.<queue>} destination, which needs the statistics
+ * broker plugin to be installed.
+ */
+@Component
+@Slf4j
+public class JmsQueueStatistics {
+
+    private static final String STATISTICS_PREFIX = "ActiveMQ.Statistics.Destination.";
+
+    @Autowired
+    private JmsTemplate jmsTemplate;
+
+    @Value("${spring.activemq.broker-url:vm://localhost}")
+    private String brokerUrl;
+
+    @Value("${jms.statistics.timeout:500}")
+    private long timeout;
+
+    /**
+     * The number of messages on the queue, or -1 if the broker does not tell.
+     */
+    public long queueDepth(String queue) {
+        if (brokerUrl.startsWith("vm:")) {
+            return embeddedQueueDepth(URI.create(brokerUrl).getHost(), queue);
+        }
+        return requestQueueDepth(queue);
+    }
+
+    long embeddedQueueDepth(String brokerName, String queue) {
+        BrokerService broker = BrokerRegistry.getInstance().lookup(brokerName);
+        if (broker == null || broker.getRegionBroker() == null) {
+            return -1;
+        }
+        Destination destination = broker.getRegionBroker().getDestinationMap().get(new ActiveMQQueue(queue));
+        return destination != null ? destination.getDestinationStatistics().getMessages().getCount() : 0;
+    }
+
+    long requestQueueDepth(String queue) {
+        try {
+            return jmsTemplate.execute(session -> {
+                TemporaryQueue replyTo = session.createTemporaryQueue();
+                MessageProducer producer = session.createProducer(session.createQueue(STATISTICS_PREFIX + queue));
+                MessageConsumer consumer = session.createConsumer(replyTo);
+                try {
+                    Message request = session.createMessage();
+                    request.setJMSReplyTo(replyTo);
+                    producer.send(request);
+                    Message reply = consumer.receive(timeout);
+                    return reply instanceof MapMessage ? ((MapMessage) reply).getLong("size") : -1L;
+                } finally {
+                    JmsUtils.closeMessageConsumer(consumer);
+                    JmsUtils.closeMessageProducer(producer);
+                    replyTo.delete();
+                }
+            }, true);
+        } catch (JmsException e) {
+            log.debug("Failed to read statistics of {}: {}", queue, e.getMessage());
+            return -1;
+        }
+    }
+
+}
@@ -0,0 +1,49 @@
+package devnoh.demoapp.jms;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import devnoh.demoapp.service.StudentCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.metrics.GaugeService;
+import org.springframework.jms.annotation.JmsListener;
+import org.springframework.jms.support.JmsHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Evicts students saved on any node from this node's {@link StudentCache}. Messages carry a JSON array of ids;
+ * one that can not be read clears the whole cache, since the students it meant are unknown. The time from
+ * publishing to eviction is recorded as {@code histogram.cache.student.invalidation.lag}.
+ */
+@Component
+@Slf4j
+public class StudentCacheInvalidationListener {
+
+    @Autowired
+    private StudentCache studentCache;
+
+    @Autowired
+    private GaugeService gaugeService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @JmsListener(destination = "${student.cache.invalidation-topic:student.invalidation}",
+            containerFactory = "topicListenerContainerFactory")
+    public void receive(String ids, @Header(JmsHeaders.TIMESTAMP) long timestamp) {
+        try {
+            studentCache.evict(Arrays.asList(objectMapper.readValue(ids, String[].class)));
+        } catch (IOException e) {
+            log.warn("Clearing the student cache on an unreadable invalidation: {}", ids);
+            studentCache.clear();
+        }
+        if (timestamp > 0) {
+            gaugeService.submit("histogram.cache.student.invalidation.lag",
+                    Math.max(0, System.currentTimeMillis() - timestamp));
+        }
+        log.debug("Students evicted: {}", ids);
+    }
+}
@@ -0,0 +1,29 @@
+package devnoh.demoapp.metrics;
+
+import org.springframework.boot.actuate.endpoint.AbstractEndpoint;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Serves the {@link StartupTimings} report at {@code /startup}.
+ */
+public class StartupEndpoint extends AbstractEndpoint<Map<String, Object>> {
+
+    private final StartupTimings startupTimings;
+
+    public StartupEndpoint(StartupTimings startupTimings) {
+        super("startup");
+        this.startupTimings = startupTimings;
+    }
+
+    @Override
+    public Map<String, Object> invoke() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("readyMillis", startupTimings.getReadyMillis());
+        report.put("subsystems", startupTimings.subsystems());
+        report.put("beans", startupTimings.beans());
+        return report;
+    }
+
+}
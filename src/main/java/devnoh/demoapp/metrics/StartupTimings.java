@@ -0,0 +1,209 @@
+package devnoh.demoapp.metrics;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessorAdapter;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.Ordered;
+import org.springframework.util.ClassUtils;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Records how long each bean took to create, from instantiation to the end of its initialization.
+ *
+ * A bean's total time includes the beans created as its dependencies, its self time does not. Self times are also
+ * summed per subsystem (jpa, mongo, jms, web, application, other), guessed from the bean's name and class. Beans
+ * created after the application is ready, such as lazy beans in the {@code fast-startup} profile, are marked as
+ * deferred. Recording stops after {@value #MAX_DEFERRED_BEANS} deferred beans, or once {@link #stopRecording()} is
+ * called, so that beans created over and over, such as those made through {@code createBean}, do not pile up. The
+ * report is logged once the application is ready and served by the {@code /startup} endpoint.
+ */
+@Slf4j
+public class StartupTimings extends InstantiationAwareBeanPostProcessorAdapter
+        implements ApplicationListener<ApplicationReadyEvent>, Ordered {
+
+    private static final int LOGGED_BEANS = 10;
+
+    static final int MAX_DEFERRED_BEANS = 1000;
+
+    private final ThreadLocal<Deque<Frame>> frames = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final ConcurrentLinkedQueue<BeanTiming> timings = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger deferred = new AtomicInteger();
+
+    private volatile long readyMillis = -1;
+
+    private volatile boolean recording = true;
+
+    @Override
+    public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) throws BeansException {
+        if (recording) {
+            frames.get().push(new Frame(beanName, System.nanoTime()));
+        }
+        return null;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        Deque<Frame> stack = frames.get();
+        if (stack.stream().noneMatch(frame -> frame.name.equals(beanName))) {
+            // A FactoryBean's product, a bean registered before this post processor, or one created after
+            // recording stopped.
+            return bean;
+        }
+        Frame frame = stack.pop();
+        while (!frame.name.equals(beanName)) {
+            // Frames of beans whose creation failed.
+            frame = stack.pop();
+        }
+        long total = System.nanoTime() - frame.start;
+        if (!stack.isEmpty()) {
+            stack.peek().children += total;
+        }
+        boolean afterReady = readyMillis >= 0;
+        if (afterReady && deferred.incrementAndGet() >= MAX_DEFERRED_BEANS) {
+            recording = false;
+        }
+        String type = ClassUtils.getUserClass(bean).getName();
+        timings.add(new BeanTiming(beanName, type, subsystem(beanName, type),
+                TimeUnit.NANOSECONDS.toMillis(total), TimeUnit.NANOSECONDS.toMillis(total - frame.children),
+                afterReady));
+        return bean;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (readyMillis >= 0) {
+            return;
+        }
+        readyMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        log.info("Ready {} ms after JVM start; bean creation per subsystem (ms): {}", readyMillis, subsystems());
+        if (log.isDebugEnabled()) {
+            for (BeanTiming timing : beans().subList(0, Math.min(LOGGED_BEANS, timings.size()))) {
+                log.debug("{} ms {} ({}, {} ms with dependencies)",
+                        timing.getSelfMillis(), timing.getName(), timing.getSubsystem(), timing.getTotalMillis());
+            }
+        }
+    }
+
+    /**
+     * Runs first, so that beans created by other ready listeners count as deferred.
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    /**
+     * Stops recording beans, once those deferred at startup have been created.
+     */
+    public void stopRecording() {
+        recording = false;
+    }
+
+    /**
+     * Milliseconds from JVM start until the application was ready, or -1 if it is not ready yet.
+     */
+    public long getReadyMillis() {
+        return readyMillis;
+    }
+
+    /**
+     * Self times summed per subsystem, slowest first. Deferred beans are not included.
+     */
+    public Map<String, Long> subsystems() {
+        Map<String, Long> totals = timings.stream()
+                .filter(timing -> !timing.isDeferred())
+                .collect(Collectors.groupingBy(BeanTiming::getSubsystem,
+                        Collectors.summingLong(BeanTiming::getSelfMillis)));
+        return totals.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    /**
+     * All recorded beans, slowest self time first.
+     */
+    public List<BeanTiming> beans() {
+        List<BeanTiming> beans = new ArrayList<>(timings);
+        beans.sort(Comparator.comparingLong(BeanTiming::getSelfMillis).reversed());
+        return beans;
+    }
+
+    static String subsystem(String beanName, String type) {
+        String name = (beanName + " " + type).toLowerCase(Locale.ROOT);
+        if (name.contains("mongo") || name.contains("flapdoodle")) {
+            return "mongo";
+        }
+        if (name.contains("jms") || name.contains("activemq")) {
+            return "jms";
+        }
+        if (name.contains("jpa") || name.contains("hibernate") || name.contains("entitymanager")
+                || name.contains("datasource") || name.contains("jdbc")) {
+            return "jpa";
+        }
+        if (name.contains("servlet") || name.contains("tomcat") || name.contains(".web.")) {
+            return "web";
+        }
+        if (type.startsWith("devnoh.")) {
+            return "application";
+        }
+        return "other";
+    }
+
+    private static class Frame {
+
+        private final String name;
+
+        private final long start;
+
+        private long children;
+
+        Frame(String name, long start) {
+            this.name = name;
+            this.start = start;
+        }
+    }
+
+    @Getter
+    public static class BeanTiming {
+
+        private final String name;
+
+        private final String type;
+
+        private final String subsystem;
+
+        private final long totalMillis;
+
+        private final long selfMillis;
+
+        private final boolean deferred;
+
+        BeanTiming(String name, String type, String subsystem, long totalMillis, long selfMillis, boolean deferred) {
+            this.name = name;
+            this.type = type;
+            this.subsystem = subsystem;
+            this.totalMillis = totalMillis;
+            this.selfMillis = selfMillis;
+            this.deferred = deferred;
+        }
+    }
+
+}
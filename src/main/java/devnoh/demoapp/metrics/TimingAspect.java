@@ -0,0 +1,164 @@
+package devnoh.demoapp.metrics;
+
+import com.codahale.metrics.MetricRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptorAdapter;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Times every public controller, service and repository method.
+ *
+ * Each method gets a Dropwizard timer {@code timer.<layer>.<Class>.<method>.success}, and {@code .error} once it
+ * has thrown. The actuator metrics endpoint publishes them with their percentiles ({@code .snapshot.median},
+ * {@code 95thPercentile}, {@code 99thPercentile}, {@code max}, ...). Repository methods are named after the
+ * repository interface, so inherited methods such as {@code findOne} are reported per repository.
+ *
+ * Methods returning a {@link CompletionStage} or a {@link DeferredResult} are timed until the result completes.
+ * {@code PublicMetrics.metrics()} is left out, since the metrics endpoint calls it on every scrape.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "metrics.timing.enabled", havingValue = "true", matchIfMissing = true)
+public class TimingAspect {
+
+    @Autowired
+    private MetricRegistry metricRegistry;
+
+    private final Map<TimerKey, String[]> names = new ConcurrentHashMap<>();
+
+    @Around("execution(public * *(..)) && (within(@org.springframework.web.bind.annotation.RestController *)"
+            + " || within(@org.springframework.stereotype.Controller *))")
+    public Object timeController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("controller", joinPoint);
+    }
+
+    @Around("execution(public * *(..)) && within(@org.springframework.stereotype.Service *)"
+            + " && !execution(* org.springframework.boot.actuate.endpoint.PublicMetrics+.metrics())")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("service", joinPoint);
+    }
+
+    @Around("execution(public * org.springframework.data.repository.Repository+.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("repository", joinPoint);
+    }
+
+    private Object time(String layer, ProceedingJoinPoint joinPoint) throws Throwable {
+        String[] outcomes = names(layer, joinPoint);
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable t) {
+            record(outcomes[1], start);
+            throw t;
+        }
+        if (result instanceof CompletionStage) {
+            ((CompletionStage<?>) result).whenComplete(
+                    (value, error) -> record(error == null ? outcomes[0] : outcomes[1], start));
+        } else if (!(result instanceof DeferredResult && recordOnCompletion(outcomes, start))) {
+            record(outcomes[0], start);
+        }
+        return result;
+    }
+
+    /**
+     * Records the timer once the current request's deferred result completes; {@code false} outside a request.
+     */
+    private boolean recordOnCompletion(String[] outcomes, long start) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return false;
+        }
+        HttpServletRequest request = ((ServletRequestAttributes) attributes).getRequest();
+        WebAsyncUtils.getAsyncManager(request).registerDeferredResultInterceptor(outcomes,
+                new DeferredResultProcessingInterceptorAdapter() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest request, DeferredResult<T> deferredResult) {
+                        Object result = deferredResult.getResult();
+                        boolean success = deferredResult.hasResult() && !(result instanceof Throwable);
+                        record(success ? outcomes[0] : outcomes[1], start);
+                    }
+                });
+        return true;
+    }
+
+    private void record(String name, long start) {
+        metricRegistry.timer(name).update(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private String[] names(String layer, ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        TimerKey key = new TimerKey(joinPoint.getThis().getClass(), method);
+        String[] outcomes = names.get(key);
+        if (outcomes == null) {
+            String name = "timer." + layer + "." + typeName(joinPoint) + "." + method.getName();
+            outcomes = new String[]{name + ".success", name + ".error"};
+            names.putIfAbsent(key, outcomes);
+        }
+        return outcomes;
+    }
+
+    private static String typeName(ProceedingJoinPoint joinPoint) {
+        Object proxy = joinPoint.getThis();
+        if (proxy instanceof Repository) {
+            for (Class<?> type : ClassUtils.getAllInterfaces(proxy)) {
+                if (Repository.class.isAssignableFrom(type) && !type.getName().startsWith("org.springframework.")) {
+                    return type.getSimpleName();
+                }
+            }
+        }
+        return ClassUtils.getUserClass(joinPoint.getTarget()).getSimpleName();
+    }
+
+    private static final class TimerKey {
+
+        private final Class<?> type;
+
+        private final Method method;
+
+        TimerKey(Class<?> type, Method method) {
+            this.type = type;
+            this.method = method;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TimerKey)) {
+                return false;
+            }
+            TimerKey other = (TimerKey) o;
+            return type == other.type && method.equals(other.method);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, method);
+        }
+    }
+
+}
@@ -0,0 +1,57 @@
+package devnoh.demoapp.repository;
+
+import devnoh.demoapp.domain.Student;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.IndexOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+/**
+ * Index definitions for the Mongo collections, ensured once the application is ready.
+ *
+ * Declaring them with {@code @Indexed} would make {@link MongoTemplate} create them while it is being
+ * constructed, so the application could not start while Mongo is unreachable. Creating an index that
+ * already exists is a no-op.
+ */
+@Component
+@Slf4j
+public class MongoIndexes {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${mongo.indexes.create-on-startup:true}")
+    private boolean createOnStartup;
+
+    @Async("startupExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!createOnStartup) {
+            return;
+        }
+        try {
+            ensureIndexes();
+        } catch (DataAccessException e) {
+            log.warn("Could not create Mongo indexes: {}", e.getMessage());
+        }
+    }
+
+    public void ensureIndexes() {
+        long start = System.currentTimeMillis();
+        IndexOperations students = mongoTemplate.indexOps(Student.class);
+        // Serves findByGrade sorted by name, and covers findSummariesByGrade.
+        students.ensureIndex(new Index().on("grade", Sort.Direction.ASC).on("name", Sort.Direction.ASC)
+                .named("idx_student_grade_name"));
+        students.ensureIndex(new Index().on("name", Sort.Direction.ASC).named("idx_student_name"));
+        log.info("Ensured Mongo indexes in {} ms", System.currentTimeMillis() - start);
+    }
+
+}
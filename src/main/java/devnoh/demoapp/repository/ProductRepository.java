@@ -4,15 +4,41 @@ import devnoh.demoapp.domain.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
     Product findByCode(String code);
 
+    List<Product> findByIdIn(Collection<Long> ids);
+
+    @Query("select p.id from Product p where p.id in :ids")
+    List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    List<Product> findByCodeIn(Collection<String> codes);
+
     List<Product> findByName(String name);
 
     Page<Product> findByActiveIsTrue(Pageable pageable);
 
+    List<Product> findByActiveIsTrueOrderByNameAscIdAsc(Pageable pageable);
+
+    @Query("select p from Product p where p.active = true"
+            + " and (p.name > :name or (p.name = :name and p.id > :id))"
+            + " order by p.name asc, p.id asc")
+    List<Product> findActiveAfter(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select p from Product p order by p.id")
+    Stream<Product> streamAllBy();
+
 }
@@ -4,6 +4,7 @@ import devnoh.demoapp.domain.Student;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 import java.util.List;
 
@@ -13,4 +14,10 @@ public interface StudentRepository extends MongoRepository<Student, String> {
 
     Page<Student> findByGrade(int grade, Pageable pageable);
 
+    /**
+     * Covered by the (grade, name) index as long as the page is sorted by name or grade, since _id is excluded.
+     */
+    @Query(value = "{'grade': ?0}", fields = "{'_id': 0, 'name': 1, 'grade': 1}")
+    Page<StudentSummary> findSummariesByGrade(int grade, Pageable pageable);
+
 }
@@ -0,0 +1,13 @@
+package devnoh.demoapp.repository;
+
+/**
+ * Name and grade of a student. Both fields are in the (grade, name) index, so queries returning this projection
+ * can be answered from the index alone.
+ */
+public interface StudentSummary {
+
+    String getName();
+
+    Integer getGrade();
+
+}
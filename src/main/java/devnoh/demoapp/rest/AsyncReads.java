@@ -0,0 +1,66 @@
+package devnoh.demoapp.rest;
+
+import devnoh.demoapp.service.StoreExecutors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Runs the reads of {@link ProductController} and {@link StudentController}. With {@code web.async.enabled} a
+ * lookup runs on the executor of its store and its result times out after {@code web.async.jpa.timeout} or
+ * {@code web.async.mongo.timeout} milliseconds. Otherwise the lookup runs on the request thread and the result is
+ * already set when it is returned.
+ */
+@Component
+public class AsyncReads {
+
+    @Autowired
+    private StoreExecutors storeExecutors;
+
+    @Value("${web.async.enabled:false}")
+    private boolean async;
+
+    @Value("${web.async.jpa.timeout:2000}")
+    private long jpaTimeout;
+
+    @Value("${web.async.mongo.timeout:5000}")
+    private long mongoTimeout;
+
+    public <T> DeferredResult<T> jpa(Supplier<T> lookup) {
+        return async ? of(storeExecutors.supplyJpa(lookup), jpaTimeout) : completed(lookup.get());
+    }
+
+    public <T> DeferredResult<T> mongo(Supplier<T> lookup) {
+        return async ? of(storeExecutors.supplyMongo(lookup), mongoTimeout) : completed(lookup.get());
+    }
+
+    static <T> DeferredResult<T> completed(T value) {
+        DeferredResult<T> result = new DeferredResult<>();
+        result.setResult(value);
+        return result;
+    }
+
+    /**
+     * Adapts the future to a deferred result that times out after the given milliseconds. A timed out request is
+     * answered with 503 and its future is cancelled, so its call is skipped if still queued.
+     */
+    private static <T> DeferredResult<T> of(CompletableFuture<T> future, long timeout) {
+        DeferredResult<T> result = new DeferredResult<>(timeout);
+        result.onTimeout(() -> future.cancel(false));
+        future.whenComplete((value, ex) -> {
+            if (ex == null) {
+                result.setResult(value);
+            } else if (!(ex instanceof CancellationException)) {
+                result.setErrorResult(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+            }
+        });
+        return result;
+    }
+
+}
@@ -0,0 +1,147 @@
+package devnoh.demoapp.rest;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import devnoh.demoapp.domain.Product;
+import devnoh.demoapp.domain.Student;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes a {@code Page<Product>} or a {@code Page<Student>} as a compact envelope, for callers that accept
+ * {@code application/vnd.demoapp.page+json}:
+ *
+ * <pre>{"content": [...], "page": 0, "size": 20, "total": 1000}</pre>
+ *
+ * The envelope is written straight to the generator, while the elements go through the application's
+ * {@link ObjectMapper}, so they carry the same fields as their default JSON under the {@code spring.jackson.*}
+ * settings and the {@code @Json*} annotations. A page whose element type is not declared, like one answered by a
+ * deferred result, is written by the runtime class of its elements.
+ */
+@Component
+public class CompactPageHttpMessageConverter extends AbstractGenericHttpMessageConverter<Page<?>> {
+
+    private static final SerializableString CONTENT = new SerializedString("content");
+
+    private static final SerializableString PAGE = new SerializedString("page");
+
+    private static final SerializableString SIZE = new SerializedString("size");
+
+    private static final SerializableString TOTAL = new SerializedString("total");
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<Class<?>, ObjectWriter> writers = new HashMap<>();
+
+    @Autowired
+    public CompactPageHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MediaTypes.APPLICATION_COMPACT_PAGE);
+        this.objectMapper = objectMapper;
+        writers.put(Product.class, writer(objectMapper, Product.class));
+        writers.put(Student.class, writer(objectMapper, Student.class));
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Page.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!supports(clazz) || !canWrite(mediaType)) {
+            return false;
+        }
+        Class<?> elementType = elementType(type);
+        return elementType == null || writers.containsKey(elementType);
+    }
+
+    @Override
+    public Page<?> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Compact pages can not be read");
+    }
+
+    @Override
+    protected Page<?> readInternal(Class<? extends Page<?>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Compact pages can not be read");
+    }
+
+    @Override
+    protected void writeInternal(Page<?> page, Type type, HttpOutputMessage outputMessage) throws IOException {
+        write(page, type, outputMessage.getBody());
+    }
+
+    /**
+     * Writes the page, of the given {@code Page<T>} type, to the stream without closing it. Closing the generator
+     * hands its buffers back to Jackson for the next page.
+     */
+    public void write(Page<?> page, Type type, OutputStream out) throws IOException {
+        Class<?> elementType = elementType(type);
+        if (elementType != null) {
+            writer(elementType);
+        } else {
+            for (Object element : page.getContent()) {
+                writer(element.getClass());
+            }
+        }
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (objectMapper.isEnabled(SerializationFeature.INDENT_OUTPUT)) {
+                generator.useDefaultPrettyPrinter();
+            }
+            generator.writeStartObject();
+            generator.writeFieldName(CONTENT);
+            generator.writeStartArray();
+            for (Object element : page.getContent()) {
+                writer(elementType != null ? elementType : element.getClass()).writeValue(generator, element);
+            }
+            generator.writeEndArray();
+            generator.writeFieldName(PAGE);
+            generator.writeNumber(page.getNumber());
+            generator.writeFieldName(SIZE);
+            generator.writeNumber(page.getSize());
+            generator.writeFieldName(TOTAL);
+            generator.writeNumber(page.getTotalElements());
+            generator.writeEndObject();
+        }
+    }
+
+    private static Class<?> elementType(Type type) {
+        return type == null ? null : ResolvableType.forType(type).as(Page.class).getGeneric(0).resolve();
+    }
+
+    private ObjectWriter writer(Class<?> elementType) {
+        ObjectWriter writer = writers.get(elementType);
+        if (writer == null) {
+            throw new IllegalArgumentException("No compact writer for " + elementType);
+        }
+        return writer;
+    }
+
+    private static ObjectWriter writer(ObjectMapper objectMapper, Class<?> elementType) {
+        return objectMapper.writerFor(elementType).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+}
@@ -0,0 +1,22 @@
+package devnoh.demoapp.rest;
+
+import org.springframework.http.MediaType;
+
+public final class MediaTypes {
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    public static final MediaType APPLICATION_NDJSON = MediaType.valueOf(APPLICATION_NDJSON_VALUE);
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    public static final MediaType APPLICATION_SMILE = MediaType.valueOf(APPLICATION_SMILE_VALUE);
+
+    public static final String APPLICATION_COMPACT_PAGE_VALUE = "application/vnd.demoapp.page+json";
+
+    public static final MediaType APPLICATION_COMPACT_PAGE = MediaType.valueOf(APPLICATION_COMPACT_PAGE_VALUE);
+
+    private MediaTypes() {
+    }
+
+}
@@ -1,23 +1,42 @@
 package devnoh.demoapp.rest;
 
 import devnoh.demoapp.domain.Product;
+import devnoh.demoapp.service.BatchResult;
+import devnoh.demoapp.service.CursorPage;
+import devnoh.demoapp.service.MultiGetResult;
+import devnoh.demoapp.service.ProductBatchService;
+import devnoh.demoapp.service.ProductExportService;
+import devnoh.demoapp.service.ProductLookup;
 import devnoh.demoapp.service.ProductService;
+import devnoh.demoapp.service.ProductSuggestion;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 
 @RestController
@@ -25,39 +44,204 @@ import javax.validation.Valid;
 @Slf4j
 public class ProductController {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 1000;
+
+    private static final int MAX_SUGGESTIONS = 100;
+
+    private static final int MAX_MULTI_GET_KEYS = 1000;
+
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductBatchService productBatchService;
+
+    @Autowired
+    private ProductExportService productExportService;
+
+    @Autowired
+    private AsyncReads asyncReads;
+
     @PostMapping(value = "",
-            consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
-    public Product saveProduct(@Valid @RequestBody Product product) {
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaTypes.APPLICATION_SMILE_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaTypes.APPLICATION_SMILE_VALUE})
+    public ResponseEntity<Product> saveProduct(@Valid @RequestBody Product product) {
         log.debug("product={}", product);
-        return productService.saveProduct(product);
+        Product saved = productService.saveProduct(product);
+        return productService.isWriteBehind() ? ResponseEntity.accepted().body(saved) : ResponseEntity.ok(saved);
+    }
+
+    @PostMapping(value = "/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaTypes.APPLICATION_NDJSON_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaTypes.APPLICATION_SMILE_VALUE})
+    public BatchResult saveProducts(InputStream body) throws IOException {
+        return productBatchService.saveProducts(body);
     }
 
-    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Product findProductById(@PathVariable Long id) {
+    @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaTypes.APPLICATION_SMILE_VALUE})
+    public DeferredResult<ResponseEntity<Product>> findProductById(@PathVariable Long id, WebRequest request) {
         log.debug("id={}", id);
-        return productService.findProductById(id);
+        String tag = TaggedResponses.weak(productService.findProductTagById(id));
+        if (tag != null && request.checkNotModified(tag)) {
+            return AsyncReads.completed(TaggedResponses.notModified(tag));
+        }
+        return asyncReads.jpa(() -> tagged(productService.findProductById(id), tag));
     }
 
-    @GetMapping(value = "/code/{code}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Product findProductByCode(@PathVariable String code) {
+    @GetMapping(value = "/code/{code}",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaTypes.APPLICATION_SMILE_VALUE})
+    public DeferredResult<ResponseEntity<Product>> findProductByCode(@PathVariable String code, WebRequest request) {
         log.debug("code={}", code);
-        return productService.findProductByCode(code);
+        String tag = TaggedResponses.weak(productService.findProductTagByCode(code));
+        if (tag != null && request.checkNotModified(tag)) {
+            return AsyncReads.completed(TaggedResponses.notModified(tag));
+        }
+        return asyncReads.jpa(() -> tagged(productService.findProductByCode(code), tag));
+    }
+
+    @GetMapping(value = "", params = "ids",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaTypes.APPLICATION_SMILE_VALUE})
+    public DeferredResult<ResponseEntity<MultiGetResult<?, Product>>> findProductsByIds(@RequestParam List<Long> ids) {
+        log.debug("ids={}", ids);
+        List<Long> keys = keys(ids);
+        if (keys.size() > MAX_MULTI_GET_KEYS) {
+            return AsyncReads.completed(ResponseEntity.badRequest().build());
+        }
+        return asyncReads.jpa(() -> ResponseEntity.ok(productService.findProductsByIds(keys)));
+    }
+
+    @GetMapping(value = "", params = "codes",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaTypes.APPLICATION_SMILE_VALUE})
+    public DeferredResult<ResponseEntity<MultiGetResult<?, Product>>> findProductsByCodes(
+            @RequestParam List<String> codes) {
+        log.debug("codes={}", codes);
+        List<String> keys = keys(codes);
+        if (keys.size() > MAX_MULTI_GET_KEYS) {
+            return AsyncReads.completed(ResponseEntity.badRequest().build());
+        }
+        return asyncReads.jpa(() -> ResponseEntity.ok(productService.findProductsByCodes(keys)));
+    }
+
+    @PostMapping(value = "/lookup",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaTypes.APPLICATION_SMILE_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaTypes.APPLICATION_SMILE_VALUE})
+    public DeferredResult<ResponseEntity<MultiGetResult<?, Product>>> lookupProducts(
+            @RequestBody ProductLookup lookup) {
+        log.debug("lookup={}", lookup);
+        if ((lookup.getIds() == null) == (lookup.getCodes() == null)) {
+            return AsyncReads.completed(ResponseEntity.badRequest().build());
+        }
+        if (lookup.getIds() != null) {
+            return findProductsByIds(lookup.getIds());
+        }
+        return findProductsByCodes(lookup.getCodes());
+    }
+
+    @GetMapping(value = "/export")
+    public void exportProducts(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, defaultValue = "") String acceptEncoding,
+            HttpServletResponse response) throws IOException {
+        log.debug("format={}, acceptEncoding={}", format, acceptEncoding);
+        ProductExportService.Format exportFormat;
+        try {
+            exportFormat = ProductExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Unsupported format: " + format);
+            return;
+        }
+
+        response.setContentType(exportFormat == ProductExportService.Format.JSON
+                ? MediaType.APPLICATION_JSON_UTF8_VALUE : MediaTypes.APPLICATION_NDJSON_VALUE);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        OutputStream out = response.getOutputStream();
+        if (acceptsGzip(acceptEncoding)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            out = new GZIPOutputStream(out, 8192);
+        }
+        try (OutputStream body = out) {
+            productExportService.exportProducts(body, exportFormat);
+        }
     }
 
-    @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
-    public List<Product> findProductsByName(@RequestParam(defaultValue = "") String name) {
+    @GetMapping(value = "/search", produces = {MediaType.APPLICATION_JSON_VALUE, MediaTypes.APPLICATION_SMILE_VALUE})
+    public DeferredResult<List<Product>> findProductsByName(@RequestParam(defaultValue = "") String name) {
         log.debug("name={}", name);
-        return productService.findProductsByName(name);
+        return asyncReads.jpa(() -> productService.findProductsByName(name));
     }
 
-    @GetMapping(value = "", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Page<Product> findActiveProducts(
+    @GetMapping(value = "/autocomplete",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaTypes.APPLICATION_SMILE_VALUE})
+    public List<ProductSuggestion> suggestProducts(
+            @RequestParam(defaultValue = "") String prefix, @RequestParam(defaultValue = "10") int limit) {
+        log.debug("prefix={}, limit={}", prefix, limit);
+        return productService.suggestProducts(prefix, Math.min(limit, MAX_SUGGESTIONS));
+    }
+
+    @GetMapping(value = "", produces = {MediaType.APPLICATION_JSON_VALUE, MediaTypes.APPLICATION_SMILE_VALUE,
+            MediaTypes.APPLICATION_COMPACT_PAGE_VALUE})
+    public DeferredResult<Page<Product>> findActiveProducts(
             @PageableDefault(sort = {"name"}, direction = Sort.Direction.ASC, size = 5) Pageable pageable) {
         log.debug("pageable={}", pageable);
-        return productService.findActiveProducts(pageable);
+        return asyncReads.jpa(() -> productService.findActiveProducts(pageable));
+    }
+
+    @GetMapping(value = "", params = "cursor",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaTypes.APPLICATION_SMILE_VALUE})
+    public DeferredResult<CursorPage<Product>> findActiveProducts(
+            @RequestParam String cursor, @RequestParam(defaultValue = "5") int size) {
+        log.debug("cursor={}, size={}", cursor, size);
+        int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        return asyncReads.jpa(() -> productService.findActiveProducts(cursor, pageSize));
+    }
+
+    /**
+     * The product with its entity tag, which the response is checked against for a conditional request. The
+     * tag is computed unless it was cached.
+     */
+    private ResponseEntity<Product> tagged(Product product, String tag) {
+        String entityTag = tag != null || product == null ? tag : productService.tagProduct(product);
+        return TaggedResponses.ok(product, entityTag);
+    }
+
+    /**
+     * Whether the {@code Accept-Encoding} header allows gzip, either by name or through {@code *}, with a
+     * non-zero quality.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        Boolean gzip = null;
+        boolean any = false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            boolean accepted = quality(parts) > 0;
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzip = accepted;
+            } else if (name.equals("*")) {
+                any = accepted;
+            }
+        }
+        return gzip != null ? gzip : any;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static <K> List<K> keys(List<K> keys) {
+        return keys.stream()
+                .filter(key -> key != null && !"".equals(key))
+                .collect(Collectors.toList());
     }
 
 }
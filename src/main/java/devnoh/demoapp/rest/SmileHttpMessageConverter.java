@@ -0,0 +1,41 @@
+package devnoh.demoapp.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Reads and writes Smile, the binary form of JSON, for callers that send or accept
+ * {@code application/x-jackson-smile}. Its mapper gets the same {@code spring.jackson.*} settings and modules as
+ * the JSON one, so both formats carry the same fields.
+ */
+@Component
+public class SmileHttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+
+    @Autowired
+    public SmileHttpMessageConverter(ApplicationContext applicationContext,
+                                     ObjectProvider<List<Jackson2ObjectMapperBuilderCustomizer>> customizers) {
+        super(objectMapper(applicationContext, customizers.getIfAvailable()), MediaTypes.APPLICATION_SMILE);
+        setDefaultCharset(null);
+    }
+
+    private static ObjectMapper objectMapper(ApplicationContext applicationContext,
+                                             List<Jackson2ObjectMapperBuilderCustomizer> customizers) {
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder().applicationContext(applicationContext);
+        if (customizers != null) {
+            customizers.forEach(customizer -> customizer.customize(builder));
+        }
+        ObjectMapper objectMapper = new ObjectMapper(new SmileFactory());
+        builder.configure(objectMapper);
+        return objectMapper;
+    }
+
+}
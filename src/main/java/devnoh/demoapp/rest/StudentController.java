@@ -1,6 +1,10 @@
 package devnoh.demoapp.rest;
 
 import devnoh.demoapp.domain.Student;
+import devnoh.demoapp.repository.StudentSummary;
+import devnoh.demoapp.service.BatchResult;
+import devnoh.demoapp.service.StudentBatchService;
+import devnoh.demoapp.service.StudentExportService;
 import devnoh.demoapp.service.StudentService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,49 +12,116 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 
+/**
+ * Student endpoints. They are served under {@code /students} and, as they always have been, at the root path.
+ * Admission control only covers the {@code /students} paths.
+ */
 @RestController
+@RequestMapping({"", "/students"})
 @Slf4j
 public class StudentController {
 
     @Autowired
     private StudentService studentService;
 
+    @Autowired
+    private StudentBatchService studentBatchService;
+
+    @Autowired
+    private StudentExportService studentExportService;
+
+    @Autowired
+    private AsyncReads asyncReads;
+
     @PostMapping(value = "",
-            consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaTypes.APPLICATION_SMILE_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaTypes.APPLICATION_SMILE_VALUE})
     public Student saveStudent(@Valid @RequestBody Student student) {
         log.debug("student={}", student);
         return studentService.saveStudent(student);
     }
 
-    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Student findStudentById(@PathVariable String id) {
+    @PostMapping(value = "/batch",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaTypes.APPLICATION_NDJSON_VALUE},
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaTypes.APPLICATION_SMILE_VALUE})
+    public BatchResult saveStudents(InputStream body) throws IOException {
+        return studentBatchService.saveStudents(body);
+    }
+
+    @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaTypes.APPLICATION_SMILE_VALUE})
+    public DeferredResult<ResponseEntity<Student>> findStudentById(@PathVariable String id, WebRequest request) {
         log.debug("id={}", id);
-        return studentService.findStudentById(id);
+        String tag = TaggedResponses.weak(studentService.findStudentTagById(id));
+        if (tag != null && request.checkNotModified(tag)) {
+            return AsyncReads.completed(TaggedResponses.notModified(tag));
+        }
+        return asyncReads.mongo(() -> tagged(studentService.findStudentById(id), tag));
     }
 
-    @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
-    public List<Student> findStudentsByName(@RequestParam(defaultValue = "") String name) {
+    @GetMapping(value = "/search", produces = {MediaType.APPLICATION_JSON_VALUE, MediaTypes.APPLICATION_SMILE_VALUE})
+    public DeferredResult<List<Student>> findStudentsByName(@RequestParam(defaultValue = "") String name) {
         log.debug("name={}", name);
-        return studentService.findStudentsByName(name);
+        return asyncReads.mongo(() -> studentService.findStudentsByName(name));
     }
 
-    @GetMapping(value = "", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Page<Student> findActiveStudents(
+    @GetMapping(value = "", produces = {MediaType.APPLICATION_JSON_VALUE, MediaTypes.APPLICATION_SMILE_VALUE,
+            MediaTypes.APPLICATION_COMPACT_PAGE_VALUE})
+    public DeferredResult<Page<Student>> findActiveStudents(
             @RequestParam Integer grade,
             @PageableDefault(sort = {"name"}, direction = Sort.Direction.ASC, size = 5) Pageable pageable) {
         log.debug("pageable={}", pageable);
-        return studentService.findStudentsByGrade(grade, pageable);
+        return asyncReads.mongo(() -> studentService.findStudentsByGrade(grade, pageable));
+    }
+
+    @GetMapping(value = "/stream")
+    public void exportStudents(
+            @RequestParam Integer grade,
+            @RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = "") String accept,
+            HttpServletResponse response) throws IOException {
+        log.debug("grade={}, accept={}", grade, accept);
+        StudentExportService.Format format = accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE)
+                ? StudentExportService.Format.EVENT_STREAM : StudentExportService.Format.NDJSON;
+
+        response.setContentType(format == StudentExportService.Format.EVENT_STREAM
+                ? MediaType.TEXT_EVENT_STREAM_VALUE : MediaTypes.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        try (OutputStream body = response.getOutputStream()) {
+            studentExportService.exportStudentsByGrade(grade, body, format);
+        }
+    }
+
+    @GetMapping(value = "/summary", produces = {MediaType.APPLICATION_JSON_VALUE, MediaTypes.APPLICATION_SMILE_VALUE})
+    public DeferredResult<Page<StudentSummary>> findStudentSummaries(
+            @RequestParam Integer grade,
+            @PageableDefault(sort = {"name"}, direction = Sort.Direction.ASC, size = 5) Pageable pageable) {
+        log.debug("grade={}, pageable={}", grade, pageable);
+        return asyncReads.mongo(() -> studentService.findStudentSummariesByGrade(grade, pageable));
+    }
+
+    private ResponseEntity<Student> tagged(Student student, String tag) {
+        String entityTag = tag != null || student == null ? tag : studentService.tagStudent(student);
+        return TaggedResponses.ok(student, entityTag);
     }
 
 }
@@ -0,0 +1,30 @@
+package devnoh.demoapp.rest;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Responses of entities with their entity tags. An entity's tag is derived from its content, which JSON and Smile
+ * carry alike, so the tag is sent weak and responses vary by {@code Accept}: a cache keeps each representation
+ * apart, and revalidates either with the same tag.
+ */
+final class TaggedResponses {
+
+    private TaggedResponses() {
+    }
+
+    static String weak(String tag) {
+        return tag == null || tag.startsWith("W/") ? tag : "W/" + tag;
+    }
+
+    static <T> ResponseEntity<T> ok(T entity, String tag) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT);
+        return entity == null ? builder.build() : builder.eTag(weak(tag)).body(entity);
+    }
+
+    static <T> ResponseEntity<T> notModified(String tag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(weak(tag)).varyBy(HttpHeaders.ACCEPT).build();
+    }
+
+}
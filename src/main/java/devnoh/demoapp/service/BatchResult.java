@@ -0,0 +1,61 @@
+package devnoh.demoapp.service;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Summary of a bulk write. Only the first {@code maxErrors} row failures are kept in {@link #getErrors()},
+ * so the result stays small no matter how many rows were submitted.
+ */
+@Getter
+public class BatchResult {
+
+    private long received;
+
+    private long inserted;
+
+    private long updated;
+
+    private long failed;
+
+    private final List<RowError> errors = new ArrayList<>();
+
+    @Getter(AccessLevel.NONE)
+    private final int maxErrors;
+
+    public BatchResult(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    public void received() {
+        received++;
+    }
+
+    public void inserted(long count) {
+        inserted += count;
+    }
+
+    public void updated(long count) {
+        updated += count;
+    }
+
+    public void failed(long row, String key, String message) {
+        failed++;
+        if (errors.size() < maxErrors) {
+            errors.add(new RowError(row, key, message));
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class RowError {
+        private long row;
+        private String key;
+        private String message;
+    }
+
+}
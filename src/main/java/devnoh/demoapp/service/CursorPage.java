@@ -0,0 +1,19 @@
+package devnoh.demoapp.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * A page of a keyset-paginated listing. {@code nextCursor} is {@code null} on the last page.
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> content;
+
+    private String nextCursor;
+
+}
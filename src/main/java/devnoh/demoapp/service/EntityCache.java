@@ -0,0 +1,157 @@
+package devnoh.demoapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of entities by id, the common part of {@link ProductCache} and {@link StudentCache}.
+ *
+ * Every eviction bumps a generation, and a load started under an older generation is not cached, so a load that
+ * races with an eviction never puts back the state it replaced. Each cached entity can also carry its entity tag,
+ * which lives and dies with the cached entity. Metrics are published as {@code cache.<name>.*}.
+ */
+public abstract class EntityCache<K, V> implements PublicMetrics {
+
+    private final String name;
+
+    private final Cache<K, V> entitiesById;
+
+    private final Cache<K, String> tagsById;
+
+    protected final LongAdder hits = new LongAdder();
+
+    protected final LongAdder misses = new LongAdder();
+
+    private final LongAdder invalidations = new LongAdder();
+
+    private long generation;
+
+    protected EntityCache(String name, long maximumSize, long ttlSeconds) {
+        this.name = name;
+        entitiesById = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        tagsById = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    protected abstract K idOf(V entity);
+
+    public V getById(K id, Function<K, V> loader) {
+        if (id == null) {
+            return loader.apply(id);
+        }
+        V entity = entitiesById.getIfPresent(id);
+        if (entity != null) {
+            hits.increment();
+            return entity;
+        }
+        misses.increment();
+        long loadGeneration = currentGeneration();
+        entity = loader.apply(id);
+        put(entity, loadGeneration);
+        return entity;
+    }
+
+    /**
+     * Returns the tag of the cached entity, or null if the entity or its tag is not cached.
+     */
+    public String getTagById(K id) {
+        return id == null || entitiesById.getIfPresent(id) == null ? null : tagsById.getIfPresent(id);
+    }
+
+    /**
+     * Computes the tag of an entity. It is kept only if the entity is the instance currently cached, so a tag
+     * never outlives the state it was computed from.
+     */
+    public String tag(V entity) {
+        String tag = EntityTags.of(entity);
+        synchronized (this) {
+            K id = idOf(entity);
+            if (id != null && entitiesById.getIfPresent(id) == entity) {
+                tagsById.put(id, tag);
+            }
+        }
+        return tag;
+    }
+
+    public synchronized void clear() {
+        generation++;
+        entitiesById.invalidateAll();
+        tagsById.invalidateAll();
+    }
+
+    public long size() {
+        return entitiesById.estimatedSize();
+    }
+
+    /**
+     * Changes whenever entities are evicted, so a load started under an older generation may be stale.
+     */
+    public synchronized long currentGeneration() {
+        return generation;
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        String prefix = "cache." + name + ".";
+        List<Metric<?>> metrics = new ArrayList<>();
+        metrics.add(new Metric<>(prefix + "size", entitiesById.estimatedSize()));
+        metrics.add(new Metric<>(prefix + "hits", hitCount));
+        metrics.add(new Metric<>(prefix + "misses", missCount));
+        metrics.add(new Metric<>(prefix + "hit.ratio",
+                hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount)));
+        metrics.add(new Metric<>(prefix + "evictions", evictionCount()));
+        metrics.add(new Metric<>(prefix + "invalidations", invalidations.sum()));
+        return metrics;
+    }
+
+    protected V getIfPresent(K id) {
+        return entitiesById.getIfPresent(id);
+    }
+
+    protected long evictionCount() {
+        return entitiesById.stats().evictionCount();
+    }
+
+    /**
+     * Evicts the entities and starts a new generation. Subclasses evicting their own keys along with them do so
+     * while holding the cache's lock.
+     */
+    protected synchronized void invalidate(Collection<K> ids) {
+        generation++;
+        entitiesById.invalidateAll(ids);
+        tagsById.invalidateAll(ids);
+        invalidations.add(ids.size());
+    }
+
+    protected synchronized void put(V entity, long loadGeneration) {
+        if (entity == null || idOf(entity) == null || loadGeneration != generation) {
+            return;
+        }
+        entitiesById.put(idOf(entity), entity);
+        cached(entity);
+    }
+
+    /**
+     * Called with the cache's lock held after an entity was cached, to index it under further keys.
+     */
+    protected void cached(V entity) {
+    }
+
+}
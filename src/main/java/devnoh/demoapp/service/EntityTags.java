@@ -0,0 +1,29 @@
+package devnoh.demoapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Strong entity tags derived from an entity's content, so every node computes the same tag for the same state.
+ */
+final class EntityTags {
+
+    private static final ObjectWriter WRITER = new ObjectMapper()
+            .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+            .writer();
+
+    private EntityTags() {
+    }
+
+    static String of(Object entity) {
+        try {
+            return "\"" + DigestUtils.md5DigestAsHex(WRITER.writeValueAsBytes(entity)) + "\"";
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Entity can not be serialized: " + entity, e);
+        }
+    }
+
+}
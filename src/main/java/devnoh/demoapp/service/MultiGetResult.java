@@ -0,0 +1,37 @@
+package devnoh.demoapp.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The result of looking up several keys at once. {@code items} follow the order of the requested keys, once per
+ * distinct key; {@code missing} lists the keys that were not found, in the same order.
+ */
+@Getter
+@AllArgsConstructor
+public class MultiGetResult<K, T> {
+
+    private List<T> items;
+
+    private List<K> missing;
+
+    static <K, T> MultiGetResult<K, T> of(List<K> keys, Map<K, T> found) {
+        List<T> items = new ArrayList<>(found.size());
+        List<K> missing = new ArrayList<>();
+        for (K key : new LinkedHashSet<>(keys)) {
+            T item = found.get(key);
+            if (item != null) {
+                items.add(item);
+            } else {
+                missing.add(key);
+            }
+        }
+        return new MultiGetResult<>(items, missing);
+    }
+
+}
@@ -0,0 +1,177 @@
+package devnoh.demoapp.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import devnoh.demoapp.domain.Product;
+import devnoh.demoapp.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+
+/**
+ * Streams products from a JSON array or NDJSON body and persists them in chunks, one transaction per chunk.
+ * Only the current chunk is held in memory; the persistence context is cleared at the end of every chunk
+ * transaction. A product whose id does not exist is inserted under a new id.
+ */
+@Service
+@Slf4j
+public class ProductBatchService {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${product.batch.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${product.batch.max-errors:1000}")
+    private int maxErrors;
+
+    public BatchResult saveProducts(InputStream body) throws IOException {
+        BatchResult result = new BatchResult(maxErrors);
+        List<Product> chunk = new ArrayList<>(chunkSize);
+        List<Long> rows = new ArrayList<>(chunkSize);
+        long row = 0;
+
+        try (MappingIterator<Product> iterator = objectMapper.readerFor(Product.class).readValues(body)) {
+            while (true) {
+                Product product;
+                try {
+                    if (!iterator.hasNextValue()) {
+                        break;
+                    }
+                    row++;
+                    result.received();
+                    product = iterator.nextValue();
+                } catch (JsonParseException e) {
+                    result.failed(row, null, "Malformed input: " + e.getOriginalMessage());
+                    break;
+                } catch (JsonMappingException e) {
+                    result.failed(row, null, e.getOriginalMessage());
+                    continue;
+                }
+
+                Set<ConstraintViolation<Product>> violations = validator.validate(product);
+                if (!violations.isEmpty()) {
+                    result.failed(row, product.getCode(), violations.stream()
+                            .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                            .sorted()
+                            .collect(Collectors.joining(", ")));
+                    continue;
+                }
+
+                chunk.add(product);
+                rows.add(row);
+                if (chunk.size() >= chunkSize) {
+                    saveChunk(chunk, rows, result);
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            saveChunk(chunk, rows, result);
+        }
+
+        log.debug("received={}, inserted={}, updated={}, failed={}",
+                result.getReceived(), result.getInserted(), result.getUpdated(), result.getFailed());
+        return result;
+    }
+
+    private void saveChunk(List<Product> chunk, List<Long> rows, BatchResult result) {
+        Set<Long> existing = existingIds(chunk);
+        boolean[] updates = new boolean[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            Product product = chunk.get(i);
+            updates[i] = existing.contains(product.getId());
+            if (!updates[i]) {
+                product.setId(null);
+            }
+        }
+        try {
+            saveInTransaction(chunk);
+            for (boolean update : updates) {
+                count(update, result);
+            }
+        } catch (DataAccessException | TransactionException e) {
+            log.debug("Chunk of {} rows failed, retrying row by row: {}", chunk.size(), e.getMessage());
+            saveRowByRow(chunk, rows, updates, result);
+        } finally {
+            chunk.clear();
+            rows.clear();
+        }
+    }
+
+    private void saveRowByRow(List<Product> chunk, List<Long> rows, boolean[] updates, BatchResult result) {
+        for (int i = 0; i < chunk.size(); i++) {
+            Product product = chunk.get(i);
+            if (!updates[i]) {
+                // A rolled back insert keeps the id it was assigned from the sequence.
+                product.setId(null);
+            }
+            try {
+                saveInTransaction(Collections.singletonList(product));
+                count(updates[i], result);
+            } catch (DataAccessException | TransactionException e) {
+                result.failed(rows.get(i), product.getCode(), e.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+
+    private void saveInTransaction(List<Product> products) {
+        transactionTemplate.execute(status -> {
+            productService.saveProducts(products);
+            entityManager.clear();
+            return null;
+        });
+    }
+
+    private Set<Long> existingIds(List<Product> chunk) {
+        List<Long> ids = chunk.stream()
+                .map(Product::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return ids.isEmpty() ? Collections.emptySet() : new HashSet<>(productRepository.findIdsByIdIn(ids));
+    }
+
+    private static void count(boolean update, BatchResult result) {
+        if (update) {
+            result.updated(1);
+        } else {
+            result.inserted(1);
+        }
+    }
+
+}
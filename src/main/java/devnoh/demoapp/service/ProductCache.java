@@ -0,0 +1,181 @@
+package devnoh.demoapp.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import devnoh.demoapp.domain.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache for product lookups by id and by code.
+ *
+ * Products are stored once, keyed by id. The code entries only map a code to an id, and a code hit is
+ * accepted only if the cached product still carries that code, so both views stay consistent when a
+ * product is renamed. Cached tags let a conditional request be answered without loading or rendering the product.
+ */
+@Component
+public class ProductCache extends EntityCache<Long, Product> {
+
+    private final Cache<String, Long> idsByCode;
+
+    @Autowired
+    public ProductCache(@Value("${product.cache.maximum-size:10000}") long maximumSize,
+                        @Value("${product.cache.ttl-seconds:300}") long ttlSeconds) {
+        super("product", maximumSize, ttlSeconds);
+        idsByCode = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+    }
+
+    public Product getByCode(String code, Function<String, Product> loader) {
+        if (code == null) {
+            return loader.apply(code);
+        }
+        Long id = idsByCode.getIfPresent(code);
+        if (id != null) {
+            Product product = getIfPresent(id);
+            if (product != null && code.equals(product.getCode())) {
+                hits.increment();
+                return product;
+            }
+            idsByCode.invalidate(code);
+        }
+        misses.increment();
+        long loadGeneration = currentGeneration();
+        Product product = loader.apply(code);
+        put(product, loadGeneration);
+        return product;
+    }
+
+    /**
+     * Looks up several products by id. The misses are loaded with a single call to the loader, which may return
+     * them in any order and leave out the ones that do not exist. The found products are returned by id, in the
+     * order of the given ids.
+     */
+    public Map<Long, Product> getAllById(Collection<Long> ids, Function<Collection<Long>, List<Product>> loader) {
+        Map<Long, Product> found = new LinkedHashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long id : ids) {
+            Product product = getIfPresent(id);
+            if (product != null) {
+                found.put(id, product);
+            } else {
+                missing.add(id);
+            }
+        }
+        hits.add(found.size());
+        if (!missing.isEmpty()) {
+            for (Product product : load(missing, loader)) {
+                if (missing.contains(product.getId())) {
+                    found.put(product.getId(), product);
+                }
+            }
+        }
+        return reorder(ids, found);
+    }
+
+    /**
+     * Looks up several products by code, like {@link #getAllById(Collection, Function)}.
+     */
+    public Map<String, Product> getAllByCode(Collection<String> codes,
+                                             Function<Collection<String>, List<Product>> loader) {
+        Map<String, Product> found = new LinkedHashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        for (String code : codes) {
+            Long id = idsByCode.getIfPresent(code);
+            Product product = id == null ? null : getIfPresent(id);
+            if (product != null && code.equals(product.getCode())) {
+                found.put(code, product);
+            } else {
+                missing.add(code);
+            }
+        }
+        hits.add(found.size());
+        if (!missing.isEmpty()) {
+            for (Product product : load(missing, loader)) {
+                if (missing.contains(product.getCode())) {
+                    found.put(product.getCode(), product);
+                }
+            }
+        }
+        return reorder(codes, found);
+    }
+
+    public String getTagByCode(String code) {
+        Long id = code == null ? null : idsByCode.getIfPresent(code);
+        if (id == null) {
+            return null;
+        }
+        Product product = getIfPresent(id);
+        return product != null && code.equals(product.getCode()) ? getTagById(id) : null;
+    }
+
+    public synchronized void evict(Product product) {
+        if (product == null) {
+            return;
+        }
+        invalidate(product.getId() != null
+                ? Collections.singletonList(product.getId()) : Collections.<Long>emptyList());
+        if (product.getCode() != null) {
+            idsByCode.invalidate(product.getCode());
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        super.clear();
+        idsByCode.invalidateAll();
+    }
+
+    @Override
+    protected Long idOf(Product product) {
+        return product.getId();
+    }
+
+    @Override
+    protected long evictionCount() {
+        return super.evictionCount() + idsByCode.stats().evictionCount();
+    }
+
+    @Override
+    protected void cached(Product product) {
+        if (product.getCode() != null) {
+            idsByCode.put(product.getCode(), product.getId());
+        }
+    }
+
+    private <K> List<Product> load(Set<K> keys, Function<Collection<K>, List<Product>> loader) {
+        misses.add(keys.size());
+        long loadGeneration = currentGeneration();
+        List<Product> products = loader.apply(keys);
+        for (Product product : products) {
+            put(product, loadGeneration);
+        }
+        return products;
+    }
+
+    private static <K> Map<K, Product> reorder(Collection<K> keys, Map<K, Product> found) {
+        Map<K, Product> ordered = new LinkedHashMap<>();
+        for (K key : keys) {
+            Product product = found.get(key);
+            if (product != null) {
+                ordered.putIfAbsent(key, product);
+            }
+        }
+        return ordered;
+    }
+
+}
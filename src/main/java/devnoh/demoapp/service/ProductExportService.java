@@ -0,0 +1,67 @@
+package devnoh.demoapp.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import devnoh.demoapp.domain.Product;
+import devnoh.demoapp.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+/**
+ * Writes the whole product catalog to an output stream while reading it from a database cursor.
+ * Each entity is detached once written, so heap use does not depend on the catalog size.
+ */
+@Service
+@Slf4j
+public class ProductExportService {
+
+    public enum Format {
+        JSON, NDJSON
+    }
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    public long exportProducts(OutputStream out, Format format) throws IOException {
+        long count = 0;
+        try (Stream<Product> products = productRepository.streamAllBy();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            if (format == Format.JSON) {
+                generator.writeStartArray();
+            }
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                Product product = iterator.next();
+                generator.writeObject(product);
+                if (format == Format.NDJSON) {
+                    generator.writeRaw('\n');
+                }
+                entityManager.detach(product);
+                count++;
+            }
+            if (format == Format.JSON) {
+                generator.writeEndArray();
+            }
+        }
+        log.debug("Exported {} products as {}", count, format);
+        return count;
+    }
+
+}
@@ -0,0 +1,17 @@
+package devnoh.demoapp.service;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Body of a product multi-get, with either {@code ids} or {@code codes}.
+ */
+@Data
+public class ProductLookup {
+
+    private List<Long> ids;
+
+    private List<String> codes;
+
+}
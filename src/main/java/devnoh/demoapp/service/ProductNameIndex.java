@@ -0,0 +1,117 @@
+package devnoh.demoapp.service;
+
+import devnoh.demoapp.domain.Product;
+import devnoh.demoapp.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * In-memory prefix index over product names and codes, used for type-ahead lookups.
+ *
+ * Every product is indexed under its lower-cased code, its full name and each word suffix of the name
+ * ("iphone 7 plus", "7 plus", "plus"), so a prefix matches the start of any word. Terms live in a sorted
+ * skip list keyed by term and product id; a prefix query is a range scan that stops after {@code limit}
+ * distinct products and never touches the database.
+ */
+@Component
+@Slf4j
+public class ProductNameIndex {
+
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    private final ConcurrentSkipListMap<String, ProductSuggestion> terms = new ConcurrentSkipListMap<>();
+
+    private final Map<Long, List<String>> entries = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        try (Stream<Product> products = productRepository.streamAllBy()) {
+            products.forEach(product -> index(product, false));
+        }
+        log.info("Indexed {} products in {} ms", entries.size(), System.currentTimeMillis() - start);
+    }
+
+    public void update(Product product) {
+        index(product, true);
+    }
+
+    public List<ProductSuggestion> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        Set<ProductSuggestion> matches = new LinkedHashSet<>();
+        for (ProductSuggestion suggestion : terms.subMap(normalized, normalized + Character.MAX_VALUE).values()) {
+            matches.add(suggestion);
+            if (matches.size() >= limit) {
+                break;
+            }
+        }
+        return new ArrayList<>(matches);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private synchronized void index(Product product, boolean replace) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        List<String> previous = entries.get(product.getId());
+        if (previous != null) {
+            if (!replace) {
+                return;
+            }
+            previous.forEach(terms::remove);
+        }
+
+        ProductSuggestion suggestion = new ProductSuggestion(product.getId(), product.getCode(), product.getName());
+        List<String> keys = new ArrayList<>();
+        for (String term : terms(product)) {
+            String key = term + KEY_SEPARATOR + product.getId();
+            terms.put(key, suggestion);
+            keys.add(key);
+        }
+        entries.put(product.getId(), keys);
+    }
+
+    private static Set<String> terms(Product product) {
+        Set<String> terms = new LinkedHashSet<>();
+        String code = normalize(product.getCode());
+        if (!code.isEmpty()) {
+            terms.add(code);
+        }
+        String name = normalize(product.getName());
+        for (int i = 0; i < name.length(); i++) {
+            if (i == 0 || (name.charAt(i - 1) == ' ' && name.charAt(i) != ' ')) {
+                terms.add(name.substring(i));
+            }
+        }
+        return terms;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+}
@@ -2,29 +2,113 @@ package devnoh.demoapp.service;
 
 import devnoh.demoapp.domain.Product;
 import devnoh.demoapp.repository.ProductRepository;
+import devnoh.demoapp.util.SingleFlight;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Service
-public class ProductService {
+public class ProductService implements PublicMetrics {
 
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductNameIndex productNameIndex;
+
+    @Autowired(required = false)
+    private ProductWriteBehind productWriteBehind;
+
+    @Value("${product.multi-get.chunk-size:500}")
+    private int multiGetChunkSize = 500;
+
+    private final SingleFlight<String, Product> lookups = new SingleFlight<>();
+
+    /**
+     * Saves the product, or only queues it when write-behind is enabled. A queued product is returned as given,
+     * without an id for new products.
+     */
     public Product saveProduct(Product product) {
-        return productRepository.save(product);
+        if (productWriteBehind != null) {
+            productWriteBehind.enqueue(product);
+            return product;
+        }
+        Product saved = productRepository.save(product);
+        afterCommit(Collections.singletonList(saved));
+        return saved;
+    }
+
+    @Transactional
+    public List<Product> saveProducts(List<Product> products) {
+        List<Product> saved = productRepository.save(products);
+        productRepository.flush();
+        afterCommit(saved);
+        return saved;
+    }
+
+    public boolean isWriteBehind() {
+        return productWriteBehind != null;
     }
 
     public Product findProductById(Long id) {
-        return productRepository.findOne(id);
+        return productCache.getById(id, key -> coalesce("id:" + key, () -> productRepository.findOne(key)));
     }
 
     public Product findProductByCode(String code) {
-        return productRepository.findByCode(code);
+        return productCache.getByCode(code, key -> coalesce("code:" + key, () -> productRepository.findByCode(key)));
+    }
+
+    /**
+     * Looks up products by id through the cache. The misses are read with one {@code IN} query per
+     * {@code product.multi-get.chunk-size} ids.
+     */
+    public MultiGetResult<Long, Product> findProductsByIds(List<Long> ids) {
+        return MultiGetResult.of(ids,
+                productCache.getAllById(ids, missing -> inChunks(missing, productRepository::findByIdIn)));
+    }
+
+    public MultiGetResult<String, Product> findProductsByCodes(List<String> codes) {
+        return MultiGetResult.of(codes,
+                productCache.getAllByCode(codes, missing -> inChunks(missing, productRepository::findByCodeIn)));
+    }
+
+    public String findProductTagById(Long id) {
+        return productCache.getTagById(id);
+    }
+
+    public String findProductTagByCode(String code) {
+        return productCache.getTagByCode(code);
+    }
+
+    public String tagProduct(Product product) {
+        return productCache.tag(product);
+    }
+
+    public List<ProductSuggestion> suggestProducts(String prefix, int limit) {
+        return productNameIndex.suggest(prefix, limit);
     }
 
     public List<Product> findProductsByName(String name) {
@@ -35,4 +119,101 @@ public class ProductService {
         return productRepository.findByActiveIsTrue(pageable);
     }
 
+    /**
+     * Lists active products ordered by (name, id), starting after the given cursor. Seeks on the
+     * (active, name, id) index instead of scanning an offset, and runs no count query.
+     */
+    public CursorPage<Product> findActiveProducts(String cursor, int size) {
+        Pageable limit = new PageRequest(0, size + 1);
+        List<Product> products;
+        if (cursor == null || cursor.isEmpty()) {
+            products = productRepository.findByActiveIsTrueOrderByNameAscIdAsc(limit);
+        } else {
+            String[] key = decodeCursor(cursor);
+            products = productRepository.findActiveAfter(key[1], Long.valueOf(key[0]), limit);
+        }
+
+        if (products.size() <= size) {
+            return new CursorPage<>(products, null);
+        }
+        List<Product> content = products.subList(0, size);
+        Product last = content.get(size - 1);
+        return new CursorPage<>(content, encodeCursor(last));
+    }
+
+    static String encodeCursor(Product product) {
+        String key = product.getId() + ":" + product.getName();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String[] decodeCursor(String cursor) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = key.split(":", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Missing name");
+            }
+            Long.parseLong(parts[0]);
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        return Arrays.asList(
+                new Metric<>("product.lookup.collapsed", lookups.collapsed()),
+                new Metric<>("product.lookup.in-flight", lookups.inFlight()));
+    }
+
+    /**
+     * Runs a cache-miss query on the calling thread, unless the same query is already in flight, in which case
+     * the caller waits for and shares its result. The cache generation is part of the key, so a caller arriving
+     * after a save never joins a query that may have read the product before it.
+     */
+    private Product coalesce(String key, Supplier<Product> query) {
+        try {
+            return lookups.execute(key + "@" + productCache.currentGeneration(),
+                    () -> CompletableFuture.completedFuture(query.get())).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private <K> List<Product> inChunks(Collection<K> keys, Function<List<K>, List<Product>> query) {
+        List<K> all = new ArrayList<>(keys);
+        List<Product> products = new ArrayList<>(all.size());
+        for (int from = 0; from < all.size(); from += multiGetChunkSize) {
+            products.addAll(query.apply(all.subList(from, Math.min(from + multiGetChunkSize, all.size()))));
+        }
+        return products;
+    }
+
+    private void afterCommit(List<Product> products) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            productsSaved(products);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                productsSaved(products);
+            }
+        });
+    }
+
+    private void productsSaved(List<Product> products) {
+        for (Product product : products) {
+            productCache.evict(product);
+            productNameIndex.update(product);
+        }
+    }
+
 }
@@ -0,0 +1,16 @@
+package devnoh.demoapp.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ProductSuggestion {
+
+    private Long id;
+
+    private String code;
+
+    private String name;
+
+}
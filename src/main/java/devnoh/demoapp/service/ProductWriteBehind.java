@@ -0,0 +1,187 @@
+package devnoh.demoapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import devnoh.demoapp.domain.Product;
+import devnoh.demoapp.jms.BatchMessageListener;
+import devnoh.demoapp.jms.JmsMessageSender;
+import devnoh.demoapp.jms.JmsQueueStatistics;
+import devnoh.demoapp.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+
+/**
+ * Write-behind persistence for {@link ProductService#saveProduct(Product)}. Products are queued as JSON on
+ * {@code product.write-behind.queue} and persisted by the {@code productWriteBehindListenerContainer} in
+ * batches, one database transaction per batch. Within a batch only the last write of each code is kept, and
+ * a code that already exists is updated in place, so a batch redelivered after a failed JMS commit is persisted
+ * again without harm. If the batch transaction fails, its products are retried one per transaction, and a product
+ * that still fails is moved to {@code product.write-behind.dead-letter-queue} so the rest of the batch commits.
+ * Messages that can not be read as a product are moved there as well. A product that carries an id is saved
+ * under that id, so a rename keeps its row; only products without one are matched to existing rows by code.
+ *
+ * The pending gauge is the depth of the queue on the broker. The container reports how long the oldest product
+ * of each batch waited under {@code histogram.jms.<queue>.lag}.
+ */
+@Service
+@ConditionalOnProperty(name = "product.write-behind.enabled", havingValue = "true")
+@Slf4j
+public class ProductWriteBehind implements BatchMessageListener, PublicMetrics {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JmsMessageSender jmsMessageSender;
+
+    @Autowired
+    private JmsQueueStatistics jmsQueueStatistics;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${product.write-behind.queue:product.write-behind}")
+    private String queue;
+
+    @Value("${product.write-behind.dead-letter-queue:DLQ.product.write-behind}")
+    private String deadLetterQueue;
+
+    private ObjectReader productReader;
+
+    private final AtomicLong persisted = new AtomicLong();
+
+    private final AtomicLong coalesced = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        productReader = objectMapper.readerFor(Product.class);
+    }
+
+    public void enqueue(Product product) {
+        try {
+            jmsMessageSender.send(queue, objectMapper.writeValueAsString(product));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Product can not be serialized: " + product, e);
+        }
+    }
+
+    @Override
+    public void onMessages(List<String> messages) {
+        Map<String, Product> latest = new LinkedHashMap<>();
+        Map<String, String> latestMessages = new HashMap<>();
+        int unreadable = 0;
+        for (String message : messages) {
+            try {
+                Product product = productReader.readValue(message);
+                latest.put(product.getCode(), product);
+                latestMessages.put(product.getCode(), message);
+            } catch (IOException e) {
+                log.warn("Moving unreadable product message to {}: {}", deadLetterQueue, e.getMessage());
+                jmsMessageSender.send(deadLetterQueue, message);
+                failed.incrementAndGet();
+                unreadable++;
+            }
+        }
+
+        int saved = latest.size();
+        if (!latest.isEmpty()) {
+            Set<String> unidentified = latest.values().stream()
+                    .filter(product -> product.getId() == null)
+                    .map(Product::getCode)
+                    .collect(Collectors.toSet());
+            if (!unidentified.isEmpty()) {
+                for (Product existingProduct : productRepository.findByCodeIn(unidentified)) {
+                    Product product = latest.get(existingProduct.getCode());
+                    if (product != null && product.getId() == null) {
+                        product.setId(existingProduct.getId());
+                    }
+                }
+            }
+            List<Product> products = new ArrayList<>(latest.values());
+            Map<String, Long> ids = new HashMap<>();
+            products.forEach(product -> ids.put(product.getCode(), product.getId()));
+            try {
+                saveInTransaction(products);
+            } catch (DataAccessException | TransactionException e) {
+                log.debug("Batch of {} products failed, retrying one by one: {}", products.size(), e.getMessage());
+                saved -= saveOneByOne(products, ids, latestMessages);
+            }
+        }
+
+        persisted.addAndGet(saved);
+        coalesced.addAndGet(messages.size() - unreadable - latest.size());
+        log.debug("Persisted {} products from {} messages", saved, messages.size());
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        List<Metric<?>> metrics = new ArrayList<>();
+        long pending = jmsQueueStatistics.queueDepth(queue);
+        if (pending >= 0) {
+            metrics.add(new Metric<>("product.write-behind.pending", pending));
+        }
+        metrics.add(new Metric<>("product.write-behind.persisted", persisted.get()));
+        metrics.add(new Metric<>("product.write-behind.coalesced", coalesced.get()));
+        metrics.add(new Metric<>("product.write-behind.failed", failed.get()));
+        return metrics;
+    }
+
+    /**
+     * Returns the number of products that failed on their own and were moved to the dead letter queue.
+     */
+    private int saveOneByOne(List<Product> products, Map<String, Long> ids, Map<String, String> messages) {
+        int failures = 0;
+        for (Product product : products) {
+            // A rolled back insert keeps the id it was assigned from the sequence.
+            product.setId(ids.get(product.getCode()));
+            try {
+                saveInTransaction(Collections.singletonList(product));
+            } catch (DataAccessException | TransactionException e) {
+                log.warn("Moving product {} to {}: {}", product.getCode(), deadLetterQueue,
+                        e.getMostSpecificCause().getMessage());
+                jmsMessageSender.send(deadLetterQueue, messages.get(product.getCode()));
+                failed.incrementAndGet();
+                failures++;
+            }
+        }
+        return failures;
+    }
+
+    private void saveInTransaction(List<Product> products) {
+        transactionTemplate.execute(status -> {
+            productService.saveProducts(products);
+            return null;
+        });
+    }
+
+}
@@ -0,0 +1,12 @@
+package devnoh.demoapp.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class StoreBusyException extends RuntimeException {
+
+    public StoreBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
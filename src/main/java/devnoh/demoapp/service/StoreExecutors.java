@@ -0,0 +1,99 @@
+package devnoh.demoapp.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs repository work off the calling thread, on the {@code jpaExecutor} or the {@code mongoExecutor}.
+ *
+ * A full queue fails the call at once with a {@link StoreBusyException}. A call whose future is completed or
+ * cancelled while still queued, for example because its request timed out, is skipped instead of run.
+ */
+@Component
+public class StoreExecutors implements PublicMetrics {
+
+    private final Store jpa;
+
+    private final Store mongo;
+
+    @Autowired
+    public StoreExecutors(@Qualifier("jpaExecutor") ThreadPoolTaskExecutor jpaExecutor,
+                          @Qualifier("mongoExecutor") ThreadPoolTaskExecutor mongoExecutor) {
+        this.jpa = new Store("jpa", jpaExecutor);
+        this.mongo = new Store("mongo", mongoExecutor);
+    }
+
+    public <T> CompletableFuture<T> supplyJpa(Supplier<T> supplier) {
+        return jpa.supply(supplier);
+    }
+
+    public <T> CompletableFuture<T> supplyMongo(Supplier<T> supplier) {
+        return mongo.supply(supplier);
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        List<Metric<?>> metrics = new ArrayList<>();
+        jpa.addMetrics(metrics);
+        mongo.addMetrics(metrics);
+        return metrics;
+    }
+
+    private static class Store {
+
+        private final String name;
+
+        private final ThreadPoolTaskExecutor executor;
+
+        private final LongAdder rejected = new LongAdder();
+
+        private final LongAdder abandoned = new LongAdder();
+
+        Store(String name, ThreadPoolTaskExecutor executor) {
+            this.name = name;
+            this.executor = executor;
+        }
+
+        <T> CompletableFuture<T> supply(Supplier<T> supplier) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            try {
+                executor.execute(() -> {
+                    if (future.isDone()) {
+                        abandoned.increment();
+                        return;
+                    }
+                    try {
+                        future.complete(supplier.get());
+                    } catch (Throwable t) {
+                        future.completeExceptionally(t);
+                    }
+                });
+            } catch (TaskRejectedException e) {
+                rejected.increment();
+                future.completeExceptionally(new StoreBusyException("Too many pending " + name + " calls", e));
+            }
+            return future;
+        }
+
+        void addMetrics(List<Metric<?>> metrics) {
+            String prefix = "executor." + name;
+            metrics.add(new Metric<>(prefix + ".queue", executor.getThreadPoolExecutor().getQueue().size()));
+            metrics.add(new Metric<>(prefix + ".active", executor.getActiveCount()));
+            metrics.add(new Metric<>(prefix + ".rejected", rejected.sum()));
+            metrics.add(new Metric<>(prefix + ".abandoned", abandoned.sum()));
+        }
+    }
+
+}
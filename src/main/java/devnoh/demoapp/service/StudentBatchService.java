@@ -0,0 +1,150 @@
+package devnoh.demoapp.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.BasicDBObject;
+import com.mongodb.BulkWriteError;
+import com.mongodb.BulkWriteResult;
+import com.mongodb.DBObject;
+import devnoh.demoapp.domain.Student;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Streams students from a JSON array or NDJSON body and writes them in unordered bulk operations, one round trip
+ * per chunk. Students with an id are upserted by id, the others are inserted. A failed row does not stop the rest
+ * of its chunk. Upserted students are evicted from the student cache of every node.
+ */
+@Service
+@Slf4j
+public class StudentBatchService {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${student.batch.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${student.batch.max-errors:1000}")
+    private int maxErrors;
+
+    public BatchResult saveStudents(InputStream body) throws IOException {
+        BatchResult result = new BatchResult(maxErrors);
+        List<Student> chunk = new ArrayList<>(chunkSize);
+        List<Long> rows = new ArrayList<>(chunkSize);
+        long row = 0;
+
+        try (MappingIterator<Student> iterator = objectMapper.readerFor(Student.class).readValues(body)) {
+            while (true) {
+                Student student;
+                try {
+                    if (!iterator.hasNextValue()) {
+                        break;
+                    }
+                    row++;
+                    result.received();
+                    student = iterator.nextValue();
+                } catch (JsonParseException e) {
+                    result.failed(row, null, "Malformed input: " + e.getOriginalMessage());
+                    break;
+                } catch (JsonMappingException e) {
+                    result.failed(row, null, e.getOriginalMessage());
+                    continue;
+                }
+
+                Set<ConstraintViolation<Student>> violations = validator.validate(student);
+                if (!violations.isEmpty()) {
+                    result.failed(row, student.getId(), violations.stream()
+                            .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                            .sorted()
+                            .collect(Collectors.joining(", ")));
+                    continue;
+                }
+
+                chunk.add(student);
+                rows.add(row);
+                if (chunk.size() >= chunkSize) {
+                    saveChunk(chunk, rows, result);
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            saveChunk(chunk, rows, result);
+        }
+
+        log.debug("received={}, inserted={}, updated={}, failed={}",
+                result.getReceived(), result.getInserted(), result.getUpdated(), result.getFailed());
+        return result;
+    }
+
+    private void saveChunk(List<Student> chunk, List<Long> rows, BatchResult result) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkMode.UNORDERED, Student.class);
+        for (Student student : chunk) {
+            if (student.getId() == null) {
+                bulk.insert(student);
+            } else {
+                DBObject document = new BasicDBObject();
+                mongoTemplate.getConverter().write(student, document);
+                bulk.upsert(query(where("_id").is(student.getId())), Update.fromDBObject(document, "_id"));
+            }
+        }
+        try {
+            count(bulk.execute(), result);
+        } catch (BulkOperationException e) {
+            count(e.getResult(), result);
+            for (BulkWriteError error : e.getErrors()) {
+                result.failed(rows.get(error.getIndex()), chunk.get(error.getIndex()).getId(), error.getMessage());
+            }
+        } catch (DataAccessException e) {
+            log.debug("Chunk of {} rows failed: {}", chunk.size(), e.getMessage());
+            for (int i = 0; i < chunk.size(); i++) {
+                result.failed(rows.get(i), chunk.get(i).getId(), e.getMostSpecificCause().getMessage());
+            }
+        } finally {
+            studentService.studentsSaved(chunk.stream()
+                    .map(Student::getId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList()));
+            chunk.clear();
+            rows.clear();
+        }
+    }
+
+    private static void count(BulkWriteResult bulkResult, BatchResult result) {
+        result.inserted(bulkResult.getInsertedCount() + bulkResult.getUpserts().size());
+        result.updated(bulkResult.getMatchedCount());
+    }
+
+}
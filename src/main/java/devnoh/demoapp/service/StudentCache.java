@@ -0,0 +1,35 @@
+package devnoh.demoapp.service;
+
+import devnoh.demoapp.domain.Student;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Per-node read-through cache for student lookups by id.
+ *
+ * Other nodes save students too, so entries are evicted on the invalidations broadcast over the
+ * {@code student.cache.invalidation-topic} and expire after {@code student.cache.ttl-seconds} in case an
+ * invalidation is lost.
+ */
+@Component
+public class StudentCache extends EntityCache<String, Student> {
+
+    @Autowired
+    public StudentCache(@Value("${student.cache.maximum-size:10000}") long maximumSize,
+                        @Value("${student.cache.ttl-seconds:60}") long ttlSeconds) {
+        super("student", maximumSize, ttlSeconds);
+    }
+
+    public void evict(Collection<String> ids) {
+        invalidate(ids);
+    }
+
+    @Override
+    protected String idOf(Student student) {
+        return student.getId();
+    }
+
+}
@@ -0,0 +1,74 @@
+package devnoh.demoapp.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import devnoh.demoapp.domain.Student;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Writes all students of a grade to an output stream while reading them from a Mongo cursor, in name order.
+ * Writes block once the client stops reading, which in turn stops the cursor from fetching further batches,
+ * so heap use does not depend on the grade size.
+ */
+@Service
+@Slf4j
+public class StudentExportService {
+
+    public enum Format {
+        NDJSON, EVENT_STREAM
+    }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${student.stream.flush-size:100}")
+    private int flushSize;
+
+    public long exportStudentsByGrade(int grade, OutputStream out, Format format) throws IOException {
+        // The mapper flushes after every value by default, which would defeat the batching below.
+        ObjectWriter writer = objectMapper.writerFor(Student.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long count = 0;
+        try (CloseableIterator<Student> students = mongoTemplate.stream(
+                query(where("grade").is(grade)).with(new Sort("name")), Student.class);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            while (students.hasNext()) {
+                Student student = students.next();
+                if (format == Format.EVENT_STREAM) {
+                    generator.writeRaw("data: ");
+                    writer.writeValue(generator, student);
+                    generator.writeRaw("\n\n");
+                } else {
+                    writer.writeValue(generator, student);
+                    generator.writeRaw('\n');
+                }
+                // Each event goes out as soon as it is written; NDJSON is handed over in batches of flushSize,
+                // instead of waiting for the response buffer to fill.
+                if (++count % flushSize == 0 || format == Format.EVENT_STREAM) {
+                    generator.flush();
+                }
+            }
+        }
+        log.debug("Exported {} students of grade {} as {}", count, grade, format);
+        return count;
+    }
+
+}
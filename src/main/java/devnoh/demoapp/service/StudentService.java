@@ -1,26 +1,58 @@
 package devnoh.demoapp.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import devnoh.demoapp.domain.Student;
+import devnoh.demoapp.jms.JmsMessageSender;
 import devnoh.demoapp.repository.StudentRepository;
+import devnoh.demoapp.repository.StudentSummary;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jms.JmsException;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 @Service
+@Slf4j
 public class StudentService {
 
     @Autowired
     private StudentRepository studentRepository;
 
+    @Autowired
+    private StudentCache studentCache;
+
+    @Autowired
+    private JmsMessageSender jmsMessageSender;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${student.cache.invalidation-topic:student.invalidation}")
+    private String invalidationTopic;
+
     public Student saveStudent(Student product) {
-        return studentRepository.save(product);
+        Student saved = studentRepository.save(product);
+        studentsSaved(Collections.singletonList(saved.getId()));
+        return saved;
     }
 
     public Student findStudentById(String id) {
-        return studentRepository.findOne(id);
+        return studentCache.getById(id, studentRepository::findOne);
+    }
+
+    public String findStudentTagById(String id) {
+        return studentCache.getTagById(id);
+    }
+
+    public String tagStudent(Student student) {
+        return studentCache.tag(student);
     }
 
     public List<Student> findStudentsByName(String name) {
@@ -31,4 +63,27 @@ public class StudentService {
         return studentRepository.findByGrade(grade, pageable);
     }
 
+    public Page<StudentSummary> findStudentSummariesByGrade(int grade, Pageable pageable) {
+        return studentRepository.findSummariesByGrade(grade, pageable);
+    }
+
+    /**
+     * Evicts the students from this node's cache and tells the other nodes to do the same, publishing the ids
+     * as a JSON array. If the broadcast fails, other nodes may serve the old students until their cache entries
+     * expire.
+     */
+    public void studentsSaved(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        studentCache.evict(ids);
+        try {
+            jmsMessageSender.publish(invalidationTopic, objectMapper.writeValueAsString(ids));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Student ids can not be serialized: " + ids, e);
+        } catch (JmsException e) {
+            log.warn("Could not broadcast invalidation of {} students: {}", ids.size(), e.getMessage());
+        }
+    }
+
 }
@@ -0,0 +1,57 @@
+package devnoh.demoapp.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into one.
+ *
+ * The first caller for a key starts the call; callers that arrive while it is still in flight share its result
+ * instead of starting their own. Once the call completes the key is released, so later callers start afresh.
+ * Each caller gets its own dependent future, so cancelling one does not affect the others.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder collapsed = new LongAdder();
+
+    public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> call) {
+        CompletableFuture<V> promise = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, promise);
+        if (existing != null) {
+            collapsed.increment();
+            return existing.thenApply(Function.identity());
+        }
+        try {
+            call.get().whenComplete((value, ex) -> {
+                inFlight.remove(key, promise);
+                if (ex != null) {
+                    promise.completeExceptionally(ex);
+                } else {
+                    promise.complete(value);
+                }
+            });
+        } catch (Throwable t) {
+            inFlight.remove(key, promise);
+            promise.completeExceptionally(t);
+        }
+        return promise.thenApply(Function.identity());
+    }
+
+    /**
+     * Number of calls that joined an in-flight call instead of starting their own.
+     */
+    public long collapsed() {
+        return collapsed.sum();
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+}
@@ -0,0 +1,145 @@
+package devnoh.demoapp.admission;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.servlet.DispatcherType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdmissionInterceptorTest {
+
+    private ConcurrencyLimit productReads;
+
+    private AdmissionControl admissionControl;
+
+    private AdmissionInterceptor admissionInterceptor;
+
+    @Before
+    public void setUp() throws Exception {
+        productReads = new ConcurrencyLimit(1, 0, 0);
+        Map<String, ConcurrencyLimit> groups = new LinkedHashMap<>();
+        groups.put(AdmissionInterceptor.PRODUCT_READS, productReads);
+        groups.put(AdmissionInterceptor.PRODUCT_WRITES, new ConcurrencyLimit(1, 0, 0));
+        admissionControl = new AdmissionControl(groups, "X-Client-Id", 100, 0, 1);
+        admissionInterceptor = new AdmissionInterceptor(admissionControl, 3);
+    }
+
+    @Test
+    public void group() {
+        assertThat(admissionInterceptor.group(request("GET", "/products/1"))).isEqualTo("product-reads");
+        assertThat(admissionInterceptor.group(request("POST", "/products/lookup"))).isEqualTo("product-reads");
+        assertThat(admissionInterceptor.group(request("POST", "/products"))).isEqualTo("product-writes");
+        assertThat(admissionInterceptor.group(request("GET", "/students"))).isEqualTo("student-reads");
+        assertThat(admissionInterceptor.group(request("POST", "/students/batch"))).isNull();
+    }
+
+    @Test
+    public void preHandle_GroupFull_ServiceUnavailable() throws Exception {
+        MockHttpServletRequest first = request("GET", "/products/1");
+        assertThat(admissionInterceptor.preHandle(first, new MockHttpServletResponse(), null)).isTrue();
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertThat(admissionInterceptor.preHandle(request("GET", "/products/2"), response, null)).isFalse();
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+
+        admissionInterceptor.afterCompletion(first, new MockHttpServletResponse(), null, null);
+        assertThat(admissionInterceptor.preHandle(request("GET", "/products/2"), response, null)).isTrue();
+        assertThat(productReads.report()).containsEntry("admitted", 2L).containsEntry("shed", 1L);
+    }
+
+    @Test
+    public void preHandle_Async_SlotHeldUntilAsyncDispatchCompletes() throws Exception {
+        MockHttpServletRequest first = request("GET", "/products/1");
+        assertThat(admissionInterceptor.preHandle(first, new MockHttpServletResponse(), null)).isTrue();
+        admissionInterceptor.afterConcurrentHandlingStarted(first, new MockHttpServletResponse(), null);
+        assertThat(admissionInterceptor.preHandle(request("GET", "/products/2"),
+                new MockHttpServletResponse(), null)).isFalse();
+
+        first.setDispatcherType(DispatcherType.ASYNC);
+        assertThat(admissionInterceptor.preHandle(first, new MockHttpServletResponse(), null)).isTrue();
+        admissionInterceptor.afterCompletion(first, new MockHttpServletResponse(), null, null);
+
+        assertThat(admissionInterceptor.preHandle(request("GET", "/products/2"),
+                new MockHttpServletResponse(), null)).isTrue();
+        assertThat(productReads.report()).containsEntry("admitted", 2L).containsEntry("shed", 1L);
+    }
+
+    @Test
+    public void preHandle_OtherGroup_NotLimited() throws Exception {
+        assertThat(admissionInterceptor.preHandle(request("GET", "/products/1"),
+                new MockHttpServletResponse(), null)).isTrue();
+
+        assertThat(admissionInterceptor.preHandle(request("POST", "/products"),
+                new MockHttpServletResponse(), null)).isTrue();
+    }
+
+    @Test
+    public void preHandle_ClientOutOfTokens_TooManyRequests() throws Exception {
+        admissionControl.setRate(0.5, 1);
+
+        MockHttpServletRequest request = request("POST", "/students");
+        request.addHeader("X-Client-Id", "client-1");
+        assertThat(admissionInterceptor.preHandle(request, new MockHttpServletResponse(), null)).isTrue();
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertThat(admissionInterceptor.preHandle(request, response, null)).isFalse();
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+
+        MockHttpServletRequest other = request("POST", "/students");
+        other.addHeader("X-Client-Id", "client-2");
+        assertThat(admissionInterceptor.preHandle(other, new MockHttpServletResponse(), null)).isTrue();
+        assertThat(admissionControl.report().get("rate")).isEqualTo(rate(0.5, 1.0, 2L, 1L));
+    }
+
+    @Test
+    public void preHandle_NoClientHeader_NotRateLimited() throws Exception {
+        Map<String, ConcurrencyLimit> groups = Collections.emptyMap();
+        AdmissionControl addressOnly = new AdmissionControl(groups, "", 100, 0.5, 1);
+        AdmissionInterceptor interceptor = new AdmissionInterceptor(addressOnly, 3);
+
+        assertThat(interceptor.preHandle(request("POST", "/students"), new MockHttpServletResponse(), null)).isTrue();
+        assertThat(interceptor.preHandle(request("POST", "/students"), new MockHttpServletResponse(), null)).isTrue();
+        assertThat(addressOnly.report().get("rate")).isEqualTo(rate(0.5, 1.0, 0L, 0L));
+    }
+
+    @Test
+    public void update() {
+        assertThat(admissionControl.update("product-reads", Collections.singletonMap("maxConcurrent", 5))).isTrue();
+        assertThat(productReads.report()).containsEntry("maxConcurrent", 5).containsEntry("maxQueue", 0);
+
+        assertThat(admissionControl.update("rate", Collections.singletonMap("perSecond", 10))).isTrue();
+        assertThat(admissionControl.report().get("rate")).isEqualTo(rate(10.0, 1.0, 0L, 0L));
+
+        assertThat(admissionControl.update("student-writes", Collections.emptyMap())).isFalse();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void update_Negative_Rejected() {
+        admissionControl.update("product-reads", Collections.singletonMap("maxQueue", -1));
+    }
+
+    private static Map<String, Object> rate(double perSecond, double burst, long clients, long limited) {
+        Map<String, Object> rate = new LinkedHashMap<>();
+        rate.put("perSecond", perSecond);
+        rate.put("burst", burst);
+        rate.put("clients", clients);
+        rate.put("limited", limited);
+        return rate;
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRemoteAddr("10.0.0.1");
+        return request;
+    }
+
+}
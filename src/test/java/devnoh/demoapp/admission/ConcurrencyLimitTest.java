@@ -0,0 +1,74 @@
+package devnoh.demoapp.admission;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConcurrencyLimitTest {
+
+    @Test
+    public void acquire_QueueFull_ShedAtOnce() throws Exception {
+        ConcurrencyLimit limit = new ConcurrencyLimit(1, 0, 1000);
+
+        assertThat(limit.acquire()).isTrue();
+        long start = System.nanoTime();
+        assertThat(limit.acquire()).isFalse();
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.MILLISECONDS.toNanos(500));
+
+        assertThat(limit.report()).containsEntry("active", 1).containsEntry("admitted", 1L)
+                .containsEntry("shed", 1L);
+    }
+
+    @Test
+    public void acquire_WaitTooLong_Shed() throws Exception {
+        ConcurrencyLimit limit = new ConcurrencyLimit(1, 10, 20);
+
+        assertThat(limit.acquire()).isTrue();
+        assertThat(limit.acquire()).isFalse();
+        assertThat(limit.report()).containsEntry("waiting", 0).containsEntry("shed", 1L);
+    }
+
+    @Test
+    public void acquire_SlotReleased_Admitted() throws Exception {
+        ConcurrencyLimit limit = new ConcurrencyLimit(1, 10, 5000);
+        assertThat(limit.acquire()).isTrue();
+
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limit.acquire();
+            } catch (InterruptedException e) {
+                return false;
+            }
+        });
+        while (!limit.report().get("waiting").equals(1)) {
+            Thread.sleep(1);
+        }
+        limit.release();
+
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(limit.report()).containsEntry("active", 1).containsEntry("admitted", 2L);
+    }
+
+    @Test
+    public void setLimits_Raised_WakesWaiters() throws Exception {
+        ConcurrencyLimit limit = new ConcurrencyLimit(0, 10, 5000);
+
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limit.acquire();
+            } catch (InterruptedException e) {
+                return false;
+            }
+        });
+        while (!limit.report().get("waiting").equals(1)) {
+            Thread.sleep(1);
+        }
+        limit.setLimits(1, 10, 5000);
+
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+}
@@ -0,0 +1,70 @@
+package devnoh.demoapp.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JsonResponseExtractorTest {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    private JsonResponseExtractor<Result> extractor = new JsonResponseExtractor<>(Result.class, 64);
+
+    @Test
+    public void extractData() throws Exception {
+        Result result = extractor.extractData(response("{\"value\": \"abc\"}", HttpStatus.OK));
+        assertThat(result.getValue()).isEqualTo("abc");
+    }
+
+    @Test
+    public void extractData_ContentLengthTooLarge() throws Exception {
+        exception.expect(IOException.class);
+        exception.expectMessage("exceeds 64");
+
+        MockClientHttpResponse response = response("{\"value\": \"abc\"}", HttpStatus.OK);
+        response.getHeaders().setContentLength(65);
+        extractor.extractData(response);
+    }
+
+    @Test
+    public void extractData_BodyTooLarge() throws Exception {
+        exception.expect(IOException.class);
+        exception.expectMessage("exceeds 64 bytes");
+
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            value.append('x');
+        }
+        extractor.extractData(response("{\"value\": \"" + value + "\"}", HttpStatus.OK));
+    }
+
+    @Test
+    public void extractData_UnexpectedStatus() throws Exception {
+        exception.expect(RestClientException.class);
+
+        extractor.extractData(response("", HttpStatus.MULTIPLE_CHOICES));
+    }
+
+    private static MockClientHttpResponse response(String body, HttpStatus status) {
+        // No Content-Length header, as with a chunked response.
+        return new MockClientHttpResponse(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), status);
+    }
+
+    @Getter
+    @Setter
+    static class Result {
+        private String value;
+    }
+
+}
@@ -8,15 +8,22 @@ import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.client.AutoConfigureWebClient;
 import org.springframework.boot.test.autoconfigure.web.client.RestClientTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.client.MockRestServiceServer;
 
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
 import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertNotNull;
+import static org.hamcrest.CoreMatchers.isA;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
@@ -38,6 +45,19 @@ public class OtherRestClientTest {
     @Autowired
     private MockRestServiceServer server;
 
+    @TestConfiguration
+    static class Config {
+        @Bean
+        public Executor restClientExecutor() {
+            return new SimpleAsyncTaskExecutor();
+        }
+
+        @Bean
+        public Executor uuidRefillExecutor() {
+            return new SimpleAsyncTaskExecutor();
+        }
+    }
+
     @Rule
     public ExpectedException exception = ExpectedException.none();
 
@@ -68,4 +88,29 @@ public class OtherRestClientTest {
         log.info("response={}", response);
     }
 
+    @Test
+    public void getUuidAsync_OK() throws Exception {
+        this.server
+                .expect(requestTo(ENDPOINT_URL))
+                .andRespond(withSuccess("{\"uuid\": \"3f759ca4-2a5e-4721-8d08-a3f959699dd0\"}",
+                        MediaType.APPLICATION_JSON));
+
+        String response = client.getUuidAsync().get(5, TimeUnit.SECONDS);
+        log.info("response={}", response);
+
+        assertEquals("3f759ca4-2a5e-4721-8d08-a3f959699dd0", response);
+    }
+
+    @Test
+    public void getUuidAsync_ServerError() throws Exception {
+        exception.expect(ExecutionException.class);
+        exception.expectCause(isA(RestClientException.class));
+
+        this.server
+                .expect(requestTo(ENDPOINT_URL))
+                .andRespond(withStatus(HttpStatus.INTERNAL_SERVER_ERROR));
+
+        client.getUuidAsync().get(5, TimeUnit.SECONDS);
+    }
+
 }
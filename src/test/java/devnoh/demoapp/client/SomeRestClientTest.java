@@ -7,15 +7,24 @@ import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.client.RestClientTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.client.MockRestServiceServer;
 
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
 import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertNotNull;
+import static org.hamcrest.CoreMatchers.isA;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
@@ -33,6 +42,14 @@ public class SomeRestClientTest {
     @Autowired
     private MockRestServiceServer server;
 
+    @TestConfiguration
+    static class Config {
+        @Bean
+        public Executor restClientExecutor() {
+            return new SimpleAsyncTaskExecutor();
+        }
+    }
+
     @Rule
     public ExpectedException exception = ExpectedException.none();
 
@@ -61,4 +78,58 @@ public class SomeRestClientTest {
         String response = client.getOriginIp();
         log.info("response={}", response);
     }
+
+    @Test
+    public void getOriginIp_ResponseTooLarge() throws Exception {
+        exception.expect(RestClientException.class);
+        exception.expectMessage(Pattern.compile("Failed to get").pattern());
+
+        StringBuilder origin = new StringBuilder();
+        for (int i = 0; i < 1024 * 1024; i++) {
+            origin.append('0');
+        }
+        this.server
+                .expect(requestTo(ENDPOINT_URL))
+                .andRespond(withSuccess("{\"origin\": \"" + origin + "\"}", MediaType.APPLICATION_JSON));
+
+        String response = client.getOriginIp();
+        log.info("response={}", response);
+    }
+
+    @Test
+    public void getOriginIpAsync_OK() throws Exception {
+        this.server
+                .expect(requestTo(ENDPOINT_URL))
+                .andRespond(withSuccess("{\"origin\": \"98.174.154.130\"}", MediaType.APPLICATION_JSON));
+
+        String response = client.getOriginIpAsync().get(5, TimeUnit.SECONDS);
+        log.info("response={}", response);
+
+        assertEquals("98.174.154.130", response);
+    }
+
+    @Test
+    public void getOriginIpAsync_ServerError() throws Exception {
+        exception.expect(ExecutionException.class);
+        exception.expectCause(isA(RestClientException.class));
+
+        this.server
+                .expect(requestTo(ENDPOINT_URL))
+                .andRespond(withStatus(HttpStatus.INTERNAL_SERVER_ERROR));
+
+        client.getOriginIpAsync().get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void getOriginIpAsync_ExecutorFull() throws Exception {
+        exception.expect(ExecutionException.class);
+        exception.expectCause(isA(RestClientException.class));
+
+        SomeRestClient rejectingClient = new SomeRestClient(new RestTemplateBuilder(), 1024, command -> {
+            throw new TaskRejectedException("Executor is full");
+        });
+
+        rejectingClient.getOriginIpAsync().get(5, TimeUnit.SECONDS);
+    }
+
 }
@@ -0,0 +1,160 @@
+package devnoh.demoapp.client;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UuidPoolTest {
+
+    private UuidPool uuidPool;
+
+    private AtomicInteger remoteCalls = new AtomicInteger();
+
+    @After
+    public void tearDown() throws Exception {
+        if (uuidPool != null) {
+            uuidPool.shutdown();
+        }
+    }
+
+    @Test
+    public void start_FillsToHighWatermark() throws Exception {
+        uuidPool = new UuidPool(2, 10, 4, 1000, this::remoteUuids);
+        uuidPool.start();
+
+        waitUntil(() -> uuidPool.depth() == 10);
+        assertThat(remoteCalls.get()).isEqualTo(3);
+
+        Map<String, Number> metrics = metrics();
+        assertThat(metrics.get("uuid.pool.remote")).isEqualTo(10L);
+        assertThat(metrics.get("uuid.pool.local")).isEqualTo(0L);
+        assertThat(metrics).containsKeys("uuid.pool.depth", "uuid.pool.refill.latency");
+    }
+
+    @Test
+    public void start_RemoteShortfall_GeneratesRestLocally() throws Exception {
+        uuidPool = new UuidPool(2, 10, 4, 1000, (count, timeout) -> {
+            // The source dries up after two UUIDs.
+            return remoteCalls.get() == 0 ? remoteUuids(2, timeout) : new ArrayList<>();
+        });
+        uuidPool.start();
+
+        waitUntil(() -> uuidPool.depth() == 10);
+        Map<String, Number> metrics = metrics();
+        assertThat(metrics.get("uuid.pool.remote")).isEqualTo(2L);
+        assertThat(metrics.get("uuid.pool.local")).isEqualTo(8L);
+    }
+
+    @Test
+    public void start_RefillTimeout_GeneratesRestLocally() throws Exception {
+        uuidPool = new UuidPool(2, 10, 4, 100, (count, timeout) -> {
+            sleep(60);
+            return remoteUuids(count, timeout);
+        });
+        uuidPool.start();
+
+        waitUntil(() -> uuidPool.depth() == 10);
+        Map<String, Number> metrics = metrics();
+        assertThat(metrics.get("uuid.pool.remote").longValue()).isBetween(4L, 8L);
+        assertThat(metrics.get("uuid.pool.remote").longValue() + metrics.get("uuid.pool.local").longValue())
+                .isEqualTo(10L);
+    }
+
+    @Test
+    public void take_RefillsBelowLowWatermark() throws Exception {
+        uuidPool = new UuidPool(2, 4, 4, 1000, this::remoteUuids);
+        uuidPool.start();
+        waitUntil(() -> uuidPool.depth() == 4);
+
+        Set<String> uuids = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            uuids.add(uuidPool.take());
+        }
+        assertThat(uuids).hasSize(3);
+
+        waitUntil(() -> uuidPool.depth() == 4);
+        assertThat(remoteCalls.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void take_EmptyPool_GeneratesLocally() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        uuidPool = new UuidPool(1, 4, 4, 1000, (count, timeout) -> {
+            await(release);
+            return remoteUuids(count, timeout);
+        });
+        uuidPool.start();
+
+        String uuid = uuidPool.take();
+        release.countDown();
+
+        assertThat(uuid).hasSize(36);
+        assertThat(metrics().get("uuid.pool.misses")).isEqualTo(1L);
+    }
+
+    @Test
+    public void start_RemoteFailure_GeneratesLocally() throws Exception {
+        uuidPool = new UuidPool(2, 10, 4, 1000, (count, timeout) -> {
+            throw new RestClientException("Failed to get an UUID.");
+        });
+        uuidPool.start();
+
+        waitUntil(() -> uuidPool.depth() == 10);
+        assertThat(metrics().get("uuid.pool.local")).isEqualTo(10L);
+    }
+
+    private List<String> remoteUuids(int count, long timeout) {
+        remoteCalls.incrementAndGet();
+        List<String> uuids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            uuids.add(String.format("00000000-0000-0000-0000-%012d", remoteCalls.get() * 1000 + i));
+        }
+        return uuids;
+    }
+
+    private Map<String, Number> metrics() {
+        Map<String, Number> metrics = new HashMap<>();
+        for (Metric<?> metric : uuidPool.metrics()) {
+            metrics.put(metric.getName(), metric.getValue());
+        }
+        return metrics;
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,75 @@
+package devnoh.demoapp.config;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jms.annotation.JmsListener;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LazyInitBeanFactoryPostProcessorTest {
+
+    private AnnotationConfigApplicationContext context;
+
+    @Before
+    public void setUp() throws Exception {
+        LazyInitBeanFactoryPostProcessor postProcessor = new LazyInitBeanFactoryPostProcessor();
+        postProcessor.setEnvironment(new MockEnvironment().withProperty("startup.lazy.exclude", "excluded"));
+        context = new AnnotationConfigApplicationContext();
+        context.addBeanFactoryPostProcessor(postProcessor);
+    }
+
+    @Test
+    public void postProcessBeanFactory_ListenersStayEager() {
+        context.register(BeanConfig.class, Listener.class);
+        context.refresh();
+
+        assertThat(context.getBeanFactory().getBeanDefinition("plain").isLazyInit()).isTrue();
+        assertThat(context.getBeanFactory().getBeanDefinition("excluded").isLazyInit()).isFalse();
+        assertThat(context.getBeanFactory().getBeanDefinition("scheduled").isLazyInit()).isFalse();
+        assertThat(context.getBeanFactory().getBeanDefinition("lazyInitBeanFactoryPostProcessorTest.Listener")
+                .isLazyInit()).isFalse();
+        context.close();
+    }
+
+    @Configuration
+    static class BeanConfig {
+
+        @Bean
+        public Plain plain() {
+            return new Plain();
+        }
+
+        @Bean
+        public Plain excluded() {
+            return new Plain();
+        }
+
+        @Bean
+        public Scheduler scheduled() {
+            return new Scheduler();
+        }
+    }
+
+    static class Plain {
+    }
+
+    static class Scheduler {
+
+        @Scheduled(fixedDelay = 1000)
+        public void run() {
+        }
+    }
+
+    static class Listener {
+
+        @JmsListener(destination = "test.queue")
+        public void receive(String message) {
+        }
+    }
+
+}
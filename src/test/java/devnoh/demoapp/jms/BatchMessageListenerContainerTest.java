@@ -0,0 +1,135 @@
+package devnoh.demoapp.jms;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.GaugeService;
+import org.springframework.jms.core.JmsTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.jms.Connection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyDouble;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class BatchMessageListenerContainerTest {
+
+    private static String JMS_QUEUE_NAME = "batch.test.queue";
+
+    private ActiveMQConnectionFactory connectionFactory;
+
+    private BatchMessageListenerContainer container;
+
+    private GaugeService gaugeService;
+
+    private Connection brokerConnection;
+
+    @Before
+    public void setUp() throws Exception {
+        connectionFactory = new ActiveMQConnectionFactory("vm://batch-test?broker.persistent=false");
+        // Keeps the embedded broker alive between the sender and the container connections.
+        brokerConnection = connectionFactory.createConnection();
+        gaugeService = mock(GaugeService.class);
+
+        container = new BatchMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setDestinationName(JMS_QUEUE_NAME);
+        container.setMaxBatchSize(10);
+        container.setBatchTimeout(500);
+        container.setReceiveTimeout(100);
+        container.setGaugeService(gaugeService);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        container.shutdown();
+        brokerConnection.close();
+    }
+
+    @Test(timeout = 10000)
+    public void onMessages_Batched() throws Exception {
+        List<List<String>> batches = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(25);
+        container.setBatchMessageListener(messages -> {
+            batches.add(messages);
+            messages.forEach(message -> latch.countDown());
+        });
+
+        send(25);
+        start();
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+
+        List<String> received = new ArrayList<>();
+        batches.forEach(received::addAll);
+        assertThat(received).hasSize(25);
+        assertThat(received.get(0)).isEqualTo("Message 0");
+        for (List<String> batch : batches) {
+            assertThat(batch.size()).isLessThanOrEqualTo(10);
+        }
+        assertThat(batches.get(0)).hasSize(10);
+
+        verify(gaugeService, atLeastOnce()).submit(eq("histogram.jms." + JMS_QUEUE_NAME + ".batch.size"), anyDouble());
+        verify(gaugeService, atLeastOnce()).submit(eq("histogram.jms." + JMS_QUEUE_NAME + ".lag"), anyDouble());
+        verify(gaugeService, atLeastOnce()).submit(eq("timer.jms." + JMS_QUEUE_NAME + ".batch.latency"), anyDouble());
+    }
+
+    @Test(timeout = 10000)
+    public void onMessages_WaitsForBatchTimeout() throws Exception {
+        List<List<String>> batches = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        container.setBatchMessageListener(messages -> {
+            batches.add(messages);
+            latch.countDown();
+        });
+
+        start();
+        send(3);
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(batches.get(0)).containsExactly("Message 0", "Message 1", "Message 2");
+    }
+
+    @Test(timeout = 10000)
+    public void onMessages_Exception_Redelivered() throws Exception {
+        AtomicBoolean failed = new AtomicBoolean();
+        List<String> received = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(1);
+        container.setBatchMessageListener(messages -> {
+            if (failed.compareAndSet(false, true)) {
+                throw new IllegalStateException("Failed to handle a batch");
+            }
+            received.addAll(messages);
+            latch.countDown();
+        });
+
+        send(5);
+        start();
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(received).hasSize(5);
+    }
+
+    private void start() {
+        container.afterPropertiesSet();
+        container.start();
+    }
+
+    private void send(int count) {
+        JmsTemplate jmsTemplate = new JmsTemplate(connectionFactory);
+        for (int i = 0; i < count; i++) {
+            jmsTemplate.convertAndSend(JMS_QUEUE_NAME, "Message " + i);
+        }
+    }
+
+}
@@ -0,0 +1,55 @@
+package devnoh.demoapp.jms;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jms.config.SimpleJmsListenerEndpoint;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DestinationJmsListenerContainerFactoryTest {
+
+    private DestinationJmsListenerContainerFactory factory;
+
+    @Before
+    public void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("jms.listener.destinations.orders.queue.concurrency", "2-8");
+        factory = new DestinationJmsListenerContainerFactory(new JmsListenerSettings(environment));
+        factory.setConnectionFactory(new ActiveMQConnectionFactory("vm://factory-test?broker.persistent=false"));
+        factory.setConcurrency("3");
+    }
+
+    @Test
+    public void createListenerContainer_DestinationConcurrency() {
+        DefaultMessageListenerContainer container = factory.createListenerContainer(endpoint("orders.queue", null));
+
+        assertThat(container.getConcurrentConsumers()).isEqualTo(2);
+        assertThat(container.getMaxConcurrentConsumers()).isEqualTo(8);
+    }
+
+    @Test
+    public void createListenerContainer_OtherDestination_FactoryConcurrency() {
+        DefaultMessageListenerContainer container = factory.createListenerContainer(endpoint("other.queue", null));
+
+        assertThat(container.getMaxConcurrentConsumers()).isEqualTo(3);
+    }
+
+    @Test
+    public void createListenerContainer_EndpointConcurrency_Wins() {
+        DefaultMessageListenerContainer container = factory.createListenerContainer(endpoint("orders.queue", "5"));
+
+        assertThat(container.getMaxConcurrentConsumers()).isEqualTo(5);
+    }
+
+    private static SimpleJmsListenerEndpoint endpoint(String destination, String concurrency) {
+        SimpleJmsListenerEndpoint endpoint = new SimpleJmsListenerEndpoint();
+        endpoint.setId(destination);
+        endpoint.setDestination(destination);
+        endpoint.setConcurrency(concurrency);
+        endpoint.setMessageListener(message -> { });
+        return endpoint;
+    }
+}
@@ -12,6 +12,12 @@ import org.springframework.jms.core.JmsTemplate;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import java.util.ArrayList;
+import java.util.List;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.TextMessage;
+
 import static junit.framework.TestCase.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
@@ -24,6 +30,8 @@ public class JmsMessageSenderTest {
 
     private static String JMS_QUEUE_NAME = "default.queue";
 
+    private static String BATCH_QUEUE_NAME = "test.batch.queue";
+
     @Autowired
     private JmsTemplate jmsTemplate;
 
@@ -63,4 +71,36 @@ public class JmsMessageSenderTest {
         assertTrue(object instanceof String);
         assertEquals("A test message", object.toString());
     }
+
+    @Test(timeout = 5000)
+    public void sendAll() throws Exception {
+        int sent = jmsMessageSender.sendAll(BATCH_QUEUE_NAME, messages(250));
+        assertEquals(250, sent);
+
+        // Receives through one consumer, since prefetched messages of a closed consumer are redelivered out of order.
+        List<String> received = jmsTemplate.execute(session -> {
+            MessageConsumer consumer = session.createConsumer(session.createQueue(BATCH_QUEUE_NAME));
+            List<String> texts = new ArrayList<>();
+            Message message;
+            while ((message = consumer.receive(1000)) != null) {
+                texts.add(((TextMessage) message).getText());
+            }
+            consumer.close();
+            return texts;
+        }, true);
+        assertEquals(messages(250), received);
+    }
+
+    @Test(timeout = 5000)
+    public void sendAsync() throws Exception {
+        jmsMessageSender.sendAsync("An async test message").get();
+    }
+
+    private static List<String> messages(int count) {
+        List<String> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            messages.add("Message " + i);
+        }
+        return messages;
+    }
 }
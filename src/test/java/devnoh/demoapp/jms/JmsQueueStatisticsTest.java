@@ -0,0 +1,78 @@
+package devnoh.demoapp.jms;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.broker.BrokerPlugin;
+import org.apache.activemq.broker.BrokerService;
+import org.apache.activemq.plugin.StatisticsBrokerPlugin;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JmsQueueStatisticsTest {
+
+    private static String JMS_QUEUE_NAME = "stats.test.queue";
+
+    private BrokerService broker;
+
+    private JmsTemplate jmsTemplate;
+
+    private JmsQueueStatistics jmsQueueStatistics;
+
+    @Before
+    public void setUp() throws Exception {
+        broker = new BrokerService();
+        broker.setBrokerName("stats-test");
+        broker.setPersistent(false);
+        broker.setUseJmx(false);
+        broker.setUseShutdownHook(false);
+        broker.setPlugins(new BrokerPlugin[]{new StatisticsBrokerPlugin()});
+        broker.start();
+
+        jmsTemplate = new JmsTemplate(new ActiveMQConnectionFactory("vm://stats-test?create=false"));
+        jmsQueueStatistics = new JmsQueueStatistics();
+        ReflectionTestUtils.setField(jmsQueueStatistics, "jmsTemplate", jmsTemplate);
+        ReflectionTestUtils.setField(jmsQueueStatistics, "brokerUrl", "vm://stats-test?create=false");
+        ReflectionTestUtils.setField(jmsQueueStatistics, "timeout", 2000L);
+
+        for (int i = 0; i < 3; i++) {
+            jmsTemplate.convertAndSend(JMS_QUEUE_NAME, "Message " + i);
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        broker.stop();
+    }
+
+    @Test
+    public void queueDepth_EmbeddedBroker() {
+        assertThat(jmsQueueStatistics.queueDepth(JMS_QUEUE_NAME)).isEqualTo(3);
+
+        jmsTemplate.receive(JMS_QUEUE_NAME);
+        assertThat(jmsQueueStatistics.queueDepth(JMS_QUEUE_NAME)).isEqualTo(2);
+    }
+
+    @Test
+    public void queueDepth_UnknownQueue_Empty() {
+        assertThat(jmsQueueStatistics.queueDepth("stats.unknown.queue")).isEqualTo(0);
+    }
+
+    @Test
+    public void queueDepth_StatisticsDestination() {
+        ReflectionTestUtils.setField(jmsQueueStatistics, "brokerUrl", "tcp://localhost:61616");
+
+        assertThat(jmsQueueStatistics.queueDepth(JMS_QUEUE_NAME)).isEqualTo(3);
+    }
+
+    @Test
+    public void queueDepth_EmbeddedBrokerNotRunning() {
+        ReflectionTestUtils.setField(jmsQueueStatistics, "brokerUrl", "vm://stats-missing?create=false");
+
+        assertThat(jmsQueueStatistics.queueDepth(JMS_QUEUE_NAME)).isEqualTo(-1);
+    }
+
+}
@@ -0,0 +1,61 @@
+package devnoh.demoapp.jms;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import devnoh.demoapp.service.StudentCache;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.boot.actuate.metrics.GaugeService;
+
+import java.util.Arrays;
+
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.anyDouble;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class StudentCacheInvalidationListenerTest {
+
+    @InjectMocks
+    private StudentCacheInvalidationListener listener;
+
+    @Mock
+    private StudentCache studentCache;
+
+    @Mock
+    private GaugeService gaugeService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void receive() {
+        listener.receive("[\"s1\",\"s2,x\"]", System.currentTimeMillis());
+
+        verify(studentCache, times(1)).evict(Arrays.asList("s1", "s2,x"));
+        verify(gaugeService, times(1)).submit(eq("histogram.cache.student.invalidation.lag"), anyDouble());
+    }
+
+    @Test
+    public void receive_NoTimestamp() {
+        listener.receive("[\"s1\"]", 0);
+
+        verify(studentCache, times(1)).evict(Arrays.asList("s1"));
+        verify(gaugeService, never()).submit(eq("histogram.cache.student.invalidation.lag"), anyDouble());
+    }
+
+    @Test
+    public void receive_Unreadable_ClearsCache() {
+        listener.receive("s1,s2", 0);
+
+        verify(studentCache, times(1)).clear();
+        verify(studentCache, never()).evict(anyCollectionOf(String.class));
+    }
+
+}
@@ -0,0 +1,141 @@
+package devnoh.demoapp.metrics;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StartupTimingsTest {
+
+    private StartupTimings startupTimings;
+
+    private AnnotationConfigApplicationContext context;
+
+    @Before
+    public void setUp() throws Exception {
+        startupTimings = new StartupTimings();
+        context = new AnnotationConfigApplicationContext();
+        context.getBeanFactory().addBeanPostProcessor(startupTimings);
+    }
+
+    @Test
+    public void beans_SelfTimeExcludesDependencies() {
+        context.register(DependencyConfig.class);
+        context.refresh();
+
+        Map<String, StartupTimings.BeanTiming> beans = beans();
+        assertThat(beans.get("slowDependency").getSelfMillis()).isGreaterThanOrEqualTo(50);
+        assertThat(beans.get("dependent").getTotalMillis()).isGreaterThanOrEqualTo(50);
+        assertThat(beans.get("dependent").getSelfMillis()).isLessThan(50);
+        assertThat(beans.get("dependent").getSubsystem()).isEqualTo("application");
+        assertThat(startupTimings.subsystems().get("application")).isGreaterThanOrEqualTo(50L);
+        context.close();
+    }
+
+    @Test
+    public void beans_CreatedAfterReady_Deferred() {
+        context.register(LazyConfig.class);
+        context.refresh();
+        startupTimings.onApplicationEvent(new ApplicationReadyEvent(new SpringApplication(), new String[0], context));
+        context.getBean("slowDependency");
+
+        assertThat(startupTimings.getReadyMillis()).isGreaterThan(0);
+        assertThat(beans().get("slowDependency").isDeferred()).isTrue();
+        assertThat(startupTimings.subsystems().get("application")).isLessThan(50L);
+        context.close();
+    }
+
+    @Test
+    public void beans_StopRecording_NotRecorded() {
+        context.register(LazyConfig.class);
+        context.refresh();
+        startupTimings.onApplicationEvent(new ApplicationReadyEvent(new SpringApplication(), new String[0], context));
+        startupTimings.stopRecording();
+        context.getBean("slowDependency");
+
+        assertThat(beans()).doesNotContainKey("slowDependency");
+        context.close();
+    }
+
+    @Test
+    public void beans_DeferredCapped() {
+        context.refresh();
+        startupTimings.onApplicationEvent(new ApplicationReadyEvent(new SpringApplication(), new String[0], context));
+        for (int i = 0; i < StartupTimings.MAX_DEFERRED_BEANS + 10; i++) {
+            context.getAutowireCapableBeanFactory().createBean(Dependent.class);
+        }
+
+        assertThat(startupTimings.beans().stream().filter(StartupTimings.BeanTiming::isDeferred).count())
+                .isEqualTo(StartupTimings.MAX_DEFERRED_BEANS);
+        context.close();
+    }
+
+    @Test
+    public void subsystem() {
+        assertThat(StartupTimings.subsystem("mongoTemplate", "org.springframework.data.mongodb.core.MongoTemplate"))
+                .isEqualTo("mongo");
+        assertThat(StartupTimings.subsystem("pooledJmsConnectionFactory",
+                "org.apache.activemq.pool.PooledConnectionFactory")).isEqualTo("jms");
+        assertThat(StartupTimings.subsystem("entityManagerFactory", "com.sun.proxy.$Proxy80")).isEqualTo("jpa");
+        assertThat(StartupTimings.subsystem("productService", "devnoh.demoapp.service.ProductService"))
+                .isEqualTo("application");
+        assertThat(StartupTimings.subsystem("objectMapper", "com.fasterxml.jackson.databind.ObjectMapper"))
+                .isEqualTo("other");
+    }
+
+    private Map<String, StartupTimings.BeanTiming> beans() {
+        return startupTimings.beans().stream()
+                .collect(Collectors.toMap(StartupTimings.BeanTiming::getName, timing -> timing));
+    }
+
+    @Configuration
+    static class DependencyConfig {
+
+        @Bean
+        @Lazy
+        public SlowDependency slowDependency() throws InterruptedException {
+            return new SlowDependency();
+        }
+
+        @Bean
+        public Dependent dependent(SlowDependency slowDependency) {
+            return new Dependent(slowDependency);
+        }
+    }
+
+    @Configuration
+    static class LazyConfig {
+
+        @Bean
+        @Lazy
+        public SlowDependency slowDependency() throws InterruptedException {
+            return new SlowDependency();
+        }
+    }
+
+    static class SlowDependency {
+
+        SlowDependency() throws InterruptedException {
+            Thread.sleep(60);
+        }
+    }
+
+    static class Dependent {
+
+        Dependent() {
+        }
+
+        Dependent(SlowDependency dependency) {
+        }
+    }
+
+}
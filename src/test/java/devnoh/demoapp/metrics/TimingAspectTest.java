@@ -0,0 +1,170 @@
+package devnoh.demoapp.metrics;
+
+import com.codahale.metrics.MetricRegistry;
+import devnoh.demoapp.domain.Product;
+import devnoh.demoapp.repository.ProductRepository;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.stereotype.Service;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TimingAspectTest {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    private MetricRegistry metricRegistry;
+
+    private TimingAspect timingAspect;
+
+    @Before
+    public void setUp() throws Exception {
+        metricRegistry = new MetricRegistry();
+        timingAspect = new TimingAspect();
+        ReflectionTestUtils.setField(timingAspect, "metricRegistry", metricRegistry);
+    }
+
+    @Test
+    public void timeService() {
+        SomeService service = proxy(new SomeService());
+
+        assertThat(service.greet("World")).isEqualTo("Hello, World");
+        service.greet("Again");
+
+        assertThat(metricRegistry.timer("timer.service.SomeService.greet.success").getCount()).isEqualTo(2);
+        assertThat(metricRegistry.getTimers()).doesNotContainKey("timer.service.SomeService.greet.error");
+    }
+
+    @Test
+    public void timeService_Error() {
+        exception.expect(IllegalStateException.class);
+
+        SomeService service = proxy(new SomeService());
+        try {
+            service.fail();
+        } finally {
+            assertThat(metricRegistry.timer("timer.service.SomeService.fail.error").getCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void timeRepository_NamedAfterInterface() {
+        Product product = new Product();
+        ProductRepository repository = mock(ProductRepository.class);
+        when(repository.findOne(1L)).thenReturn(product);
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(repository);
+        factory.addInterface(ProductRepository.class);
+        factory.addAspect(timingAspect);
+        ProductRepository proxy = factory.getProxy();
+
+        assertThat(proxy.findOne(1L)).isSameAs(product);
+        assertThat(metricRegistry.timer("timer.repository.ProductRepository.findOne.success").getCount())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void timeService_CompletableFuture_TimedUntilComplete() {
+        SomeService service = proxy(new SomeService());
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+
+        service.later(upstream);
+        assertThat(metricRegistry.getTimers()).isEmpty();
+
+        upstream.completeExceptionally(new IllegalStateException("Failed"));
+        assertThat(metricRegistry.timer("timer.service.SomeService.later.error").getCount()).isEqualTo(1);
+        assertThat(metricRegistry.getTimers()).doesNotContainKey("timer.service.SomeService.later.success");
+    }
+
+    @Test
+    public void timeService_PublicMetrics_NotTimed() {
+        SomeService service = proxy(new SomeService());
+
+        service.metrics();
+
+        assertThat(metricRegistry.getTimers()).isEmpty();
+    }
+
+    @Test
+    public void timeController_DeferredResult_TimedUntilComplete() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        try {
+            SomeController controller = proxy(new SomeController());
+            DeferredResult<String> deferredResult = controller.find();
+
+            WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+            asyncManager.setAsyncWebRequest(new StandardServletAsyncWebRequest(request, response));
+            asyncManager.startDeferredResultProcessing(deferredResult);
+            assertThat(metricRegistry.getTimers()).isEmpty();
+
+            deferredResult.setResult("Found");
+            request.getAsyncContext().complete();
+            assertThat(metricRegistry.timer("timer.controller.SomeController.find.success").getCount())
+                    .isEqualTo(1);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private <T> T proxy(T target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(timingAspect);
+        return factory.getProxy();
+    }
+
+    @Service
+    public static class SomeService implements PublicMetrics {
+
+        public String greet(String name) {
+            return "Hello, " + name;
+        }
+
+        public void fail() {
+            throw new IllegalStateException("Failed");
+        }
+
+        public CompletableFuture<String> later(CompletableFuture<String> result) {
+            return result;
+        }
+
+        @Override
+        public Collection<Metric<?>> metrics() {
+            return Collections.emptyList();
+        }
+    }
+
+    @RestController
+    public static class SomeController {
+
+        public DeferredResult<String> find() {
+            return new DeferredResult<>();
+        }
+    }
+
+}
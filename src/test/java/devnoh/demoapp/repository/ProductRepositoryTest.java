@@ -13,7 +13,10 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -67,6 +70,18 @@ public class ProductRepositoryTest {
         assertNull(product);
     }
 
+    @Test
+    public void findByIdIn() {
+        List<Product> products = productRepository.findByIdIn(Arrays.asList(product2.getId(), -1L));
+        assertEquals(Arrays.asList(product2), products);
+    }
+
+    @Test
+    public void findIdsByIdIn() {
+        List<Long> ids = productRepository.findIdsByIdIn(Arrays.asList(product2.getId(), -1L));
+        assertEquals(Arrays.asList(product2.getId()), ids);
+    }
+
     @Test
     public void findByName() {
         List<Product> products = productRepository.findByName("Pixel 2");
@@ -84,6 +99,35 @@ public class ProductRepositoryTest {
         assertEquals(product1, products.getContent().get(0));
     }
 
+    @Test
+    public void findActiveAfter() {
+        Product product3 = new Product();
+        product3.setCode("P003");
+        product3.setName("iPhone 7");
+        product3.setDescription("This is another Apple phone.");
+        product3.setActive(true);
+        entityManager.persist(product3);
+
+        List<Product> first = productRepository.findByActiveIsTrueOrderByNameAscIdAsc(new PageRequest(0, 1));
+        assertEquals(1, first.size());
+        assertEquals(product1, first.get(0));
+
+        List<Product> next = productRepository.findActiveAfter(product1.getName(), product1.getId(),
+                new PageRequest(0, 5));
+        assertEquals(1, next.size());
+        assertEquals(product3, next.get(0));
+
+        assertEquals(0, productRepository.findActiveAfter(product3.getName(), product3.getId(),
+                new PageRequest(0, 5)).size());
+    }
+
+    @Test
+    public void streamAllBy() {
+        try (Stream<Product> products = productRepository.streamAllBy()) {
+            assertEquals(Arrays.asList(product1, product2), products.collect(Collectors.toList()));
+        }
+    }
+
     @Test
     public void testCRUD() {
         Product product = new Product();
@@ -11,11 +11,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(SpringRunner.class)
 @SpringBootTest
@@ -28,6 +31,9 @@ public class StudentRepositoryTest {
     @Autowired
     private StudentRepository studentRepository;
 
+    @Autowired
+    private MongoIndexes mongoIndexes;
+
     private Student student1;
 
     private Student student2;
@@ -67,4 +73,25 @@ public class StudentRepositoryTest {
         assertEquals(student1, page.getContent().get(0));
     }
 
+    @Test
+    public void findSummariesByGrade() {
+        Page<StudentSummary> page = studentRepository.findSummariesByGrade(6,
+                new PageRequest(0, 5, Sort.Direction.ASC, "name"));
+        assertEquals(1, page.getTotalElements());
+        assertEquals(1, page.getContent().size());
+        assertEquals("Jack Bauer", page.getContent().get(0).getName());
+        assertEquals(Integer.valueOf(6), page.getContent().get(0).getGrade());
+    }
+
+    @Test
+    public void ensureIndexes() {
+        mongoIndexes.ensureIndexes();
+
+        List<String> names = mongoTemplate.indexOps(Student.class).getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .collect(Collectors.toList());
+        assertTrue(names.contains("idx_student_grade_name"));
+        assertTrue(names.contains("idx_student_name"));
+    }
+
 }
@@ -0,0 +1,115 @@
+package devnoh.demoapp.rest;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import devnoh.demoapp.domain.Product;
+import devnoh.demoapp.domain.Student;
+import org.junit.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CompactPageHttpMessageConverterTest {
+
+    private static final Type PRODUCT_PAGE = new ParameterizedTypeReference<Page<Product>>() { }.getType();
+
+    private static final Type STUDENT_PAGE = new ParameterizedTypeReference<Page<Student>>() { }.getType();
+
+    private static final Type STRING_PAGE = new ParameterizedTypeReference<Page<String>>() { }.getType();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final CompactPageHttpMessageConverter converter = new CompactPageHttpMessageConverter(objectMapper);
+
+    @Test
+    public void canWrite() {
+        assertThat(converter.canWrite(PRODUCT_PAGE, PageImpl.class, MediaTypes.APPLICATION_COMPACT_PAGE)).isTrue();
+        assertThat(converter.canWrite(STUDENT_PAGE, PageImpl.class, MediaTypes.APPLICATION_COMPACT_PAGE)).isTrue();
+        assertThat(converter.canWrite(STRING_PAGE, PageImpl.class, MediaTypes.APPLICATION_COMPACT_PAGE)).isFalse();
+        assertThat(converter.canWrite(PRODUCT_PAGE, PageImpl.class, MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(converter.canWrite(Object.class, PageImpl.class, MediaTypes.APPLICATION_COMPACT_PAGE)).isTrue();
+        assertThat(converter.canRead(PRODUCT_PAGE, null, MediaTypes.APPLICATION_COMPACT_PAGE)).isFalse();
+    }
+
+    @Test
+    public void write_Products_SameFieldsAsJson() throws Exception {
+        Product product = new Product();
+        product.setId(7L);
+        product.setCode("P\"007");
+        product.setName("Product 7");
+        product.setActive(true);
+        List<Product> products = Arrays.asList(product, new Product());
+
+        JsonNode page = write(new PageImpl<>(products, new PageRequest(2, 2), 9), PRODUCT_PAGE);
+
+        assertThat(page.get("content").toString()).isEqualTo(objectMapper.writeValueAsString(products));
+        assertThat(page.get("page").asInt()).isEqualTo(2);
+        assertThat(page.get("size").asInt()).isEqualTo(2);
+        assertThat(page.get("total").asLong()).isEqualTo(9L);
+        assertThat(page.size()).isEqualTo(4);
+    }
+
+    @Test
+    public void write_Students_SameFieldsAsJson() throws Exception {
+        Student student = new Student();
+        student.setId("5a9d6f1be4b0a5b1c8e4d2f7");
+        student.setName("Jack Bauer");
+        student.setGrade(6);
+        List<Student> students = Arrays.asList(student, new Student());
+
+        JsonNode page = write(new PageImpl<>(students), STUDENT_PAGE);
+
+        assertThat(page.get("content").toString()).isEqualTo(objectMapper.writeValueAsString(students));
+        assertThat(page.get("total").asLong()).isEqualTo(2L);
+    }
+
+    @Test
+    public void write_MapperSettingsApplied() throws Exception {
+        ObjectMapper nonNullMapper = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        Product product = new Product();
+        product.setId(7L);
+        product.setCode("P007");
+        List<Product> products = Arrays.asList(product);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new CompactPageHttpMessageConverter(nonNullMapper).write(new PageImpl<>(products), PRODUCT_PAGE, out);
+
+        JsonNode page = objectMapper.readTree(out.toByteArray());
+        assertThat(page.get("content").toString()).isEqualTo(nonNullMapper.writeValueAsString(products));
+        assertThat(page.get("content").get(0).has("description")).isFalse();
+    }
+
+    @Test
+    public void write_UndeclaredElementType_WrittenByRuntimeClass() throws Exception {
+        Student student = new Student();
+        student.setId("5a9d6f1be4b0a5b1c8e4d2f7");
+        student.setName("Jack Bauer");
+        List<Student> students = Arrays.asList(student);
+
+        JsonNode page = write(new PageImpl<>(students), PageImpl.class);
+
+        assertThat(page.get("content").toString()).isEqualTo(objectMapper.writeValueAsString(students));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void write_UndeclaredElementTypeWithoutWriter() throws Exception {
+        write(new PageImpl<>(Arrays.asList("a")), PageImpl.class);
+    }
+
+    private JsonNode write(Page<?> page, Type type) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        converter.write(page, type, out);
+        return objectMapper.readTree(out.toByteArray());
+    }
+
+}
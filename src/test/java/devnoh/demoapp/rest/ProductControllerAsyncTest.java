@@ -0,0 +1,177 @@
+package devnoh.demoapp.rest;
+
+import devnoh.demoapp.domain.Product;
+import devnoh.demoapp.service.ProductBatchService;
+import devnoh.demoapp.service.ProductExportService;
+import devnoh.demoapp.service.ProductService;
+import devnoh.demoapp.service.StoreBusyException;
+import devnoh.demoapp.service.StoreExecutors;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import javax.servlet.AsyncListener;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@WebMvcTest(ProductController.class)
+@Import(AsyncReads.class)
+@TestPropertySource(properties = "web.async.enabled=true")
+public class ProductControllerAsyncTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductService productService;
+
+    @MockBean
+    private ProductBatchService productBatchService;
+
+    @MockBean
+    private ProductExportService productExportService;
+
+    @MockBean
+    private StoreExecutors storeExecutors;
+
+    private Product product;
+
+    @Before
+    public void setUp() throws Exception {
+        product = new Product();
+        product.setId(1L);
+        product.setCode("P001");
+        product.setName("Product 1");
+        product.setActive(true);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void findProductById() throws Exception {
+        supplyInline();
+        when(productService.findProductById(1L)).thenReturn(product);
+        when(productService.tagProduct(product)).thenReturn("\"v1\"");
+
+        MvcResult result = mockMvc.perform(get("/products/1").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"v1\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(jsonPath("$.code", is("P001")));
+
+        verify(productService, times(1)).findProductTagById(1L);
+        verify(productService, times(1)).findProductById(1L);
+        verify(productService, times(1)).tagProduct(product);
+        verifyNoMoreInteractions(productService);
+    }
+
+    @Test
+    public void findProductById_NotModified() throws Exception {
+        supplyInline();
+        when(productService.findProductById(1L)).thenReturn(product);
+        when(productService.tagProduct(product)).thenReturn("\"v1\"");
+
+        MvcResult result = mockMvc.perform(get("/products/1").header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void findProductById_CachedTagNotModified() throws Exception {
+        when(productService.findProductTagById(1L)).thenReturn("\"v1\"");
+
+        MvcResult result = mockMvc.perform(get("/products/1").header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotModified());
+
+        verify(productService, never()).findProductById(1L);
+        verifyNoMoreInteractions(storeExecutors);
+    }
+
+    @Test
+    public void findProductsByCodes() throws Exception {
+        supplyInline();
+        when(productService.findProductsByCodes(any())).thenReturn(null);
+
+        MvcResult result = mockMvc.perform(get("/products").param("codes", "P001"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void findProductById_Busy() throws Exception {
+        CompletableFuture<Product> busy = new CompletableFuture<>();
+        busy.completeExceptionally(new StoreBusyException("Too many pending jpa calls", null));
+        when(storeExecutors.supplyJpa(any(Supplier.class))).thenReturn(busy);
+
+        MvcResult result = mockMvc.perform(get("/products/1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable());
+
+        verify(productService, never()).findProductById(1L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void findProductById_Timeout() throws Exception {
+        CompletableFuture<Product> pending = new CompletableFuture<>();
+        when(storeExecutors.supplyJpa(any(Supplier.class))).thenReturn(pending);
+
+        MvcResult result = mockMvc.perform(get("/products/1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        for (AsyncListener listener : ((MockAsyncContext) result.getRequest().getAsyncContext()).getListeners()) {
+            listener.onTimeout(null);
+        }
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable());
+
+        assertThat(pending.isCancelled()).isTrue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void supplyInline() {
+        when(storeExecutors.supplyJpa(any(Supplier.class)))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(
+                        ((Supplier<?>) invocation.getArguments()[0]).get()));
+    }
+
+}
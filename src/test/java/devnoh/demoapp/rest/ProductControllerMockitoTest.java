@@ -2,17 +2,25 @@ package devnoh.demoapp.rest;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import devnoh.demoapp.domain.Product;
+import devnoh.demoapp.service.BatchResult;
+import devnoh.demoapp.service.ProductBatchService;
+import devnoh.demoapp.service.ProductExportService;
 import devnoh.demoapp.service.ProductService;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.InputStream;
+
 import static org.hamcrest.core.Is.is;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyLong;
@@ -20,10 +28,13 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -35,6 +46,15 @@ public class ProductControllerMockitoTest {
     @Mock
     private ProductService productService;
 
+    @Mock
+    private ProductBatchService productBatchService;
+
+    @Mock
+    private ProductExportService productExportService;
+
+    @Spy
+    private AsyncReads asyncReads = new AsyncReads();
+
     private MockMvc mockMvc;
 
     private Product product;
@@ -68,23 +88,52 @@ public class ProductControllerMockitoTest {
                 .andExpect(jsonPath("$.active", is(true)));
 
         verify(productService, times(1)).saveProduct(any(Product.class));
+        verify(productService, times(1)).isWriteBehind();
         verifyNoMoreInteractions(productService);
     }
 
+    @Test
+    public void saveProducts() throws Exception {
+        BatchResult result = new BatchResult(10);
+        result.received();
+        result.inserted(1);
+        when(productBatchService.saveProducts(any(InputStream.class))).thenReturn(result);
+
+        String requestBody = new ObjectMapper().writeValueAsString(product) + "\n";
+
+        mockMvc.perform(post("/products/batch").content(requestBody).contentType(MediaTypes.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(jsonPath("$.received", is(1)))
+                .andExpect(jsonPath("$.inserted", is(1)))
+                .andExpect(jsonPath("$.failed", is(0)));
+
+        verify(productBatchService, times(1)).saveProducts(any(InputStream.class));
+        verifyNoMoreInteractions(productBatchService, productService);
+    }
+
     @Test
     public void findProductById() throws Exception {
         when(productService.findProductById(anyLong())).thenReturn(product);
+        when(productService.tagProduct(product)).thenReturn("\"1a2b3c\"");
 
-        mockMvc.perform(get("/products/1").contentType(MediaType.APPLICATION_JSON))
+        MvcResult result = mockMvc.perform(get("/products/1").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"1a2b3c\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
                 .andExpect(jsonPath("$.id", is(1)))
                 .andExpect(jsonPath("$.code", is("P001")))
                 .andExpect(jsonPath("$.name", is("Product 1")))
                 .andExpect(jsonPath("$.description", is("This is a cool product.")))
                 .andExpect(jsonPath("$.active", is(true)));
 
+        verify(productService, times(1)).findProductTagById(1L);
         verify(productService, times(1)).findProductById(anyLong());
+        verify(productService, times(1)).tagProduct(product);
         verifyNoMoreInteractions(productService);
     }
 
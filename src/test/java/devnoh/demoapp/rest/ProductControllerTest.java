@@ -1,33 +1,59 @@
 package devnoh.demoapp.rest;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import devnoh.demoapp.domain.Product;
+import devnoh.demoapp.service.BatchResult;
+import devnoh.demoapp.service.CursorPage;
+import devnoh.demoapp.service.MultiGetResult;
+import devnoh.demoapp.service.ProductBatchService;
+import devnoh.demoapp.service.ProductExportService;
 import devnoh.demoapp.service.ProductService;
+import devnoh.demoapp.service.ProductSuggestion;
+import devnoh.demoapp.service.StoreExecutors;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(SpringRunner.class)
 @WebMvcTest(ProductController.class)
+@Import(AsyncReads.class)
 public class ProductControllerTest {
 
     @Autowired
@@ -36,6 +62,15 @@ public class ProductControllerTest {
     @MockBean
     private ProductService productService;
 
+    @MockBean
+    private ProductBatchService productBatchService;
+
+    @MockBean
+    private ProductExportService productExportService;
+
+    @MockBean
+    private StoreExecutors storeExecutors;
+
     private Product product;
 
     @Before
@@ -64,35 +99,276 @@ public class ProductControllerTest {
                 .andExpect(jsonPath("$.active", is(true)));
 
         verify(productService, times(1)).saveProduct(any(Product.class));
+        verify(productService, times(1)).isWriteBehind();
+        verifyNoMoreInteractions(productService);
+    }
+
+    @Test
+    public void saveProduct_WriteBehind() throws Exception {
+        product.setId(null);
+        when(productService.saveProduct(any(Product.class))).thenReturn(product);
+        when(productService.isWriteBehind()).thenReturn(true);
+
+        String requestBody = new ObjectMapper().writeValueAsString(product);
+
+        mockMvc.perform(post("/products").content(requestBody).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.code", is("P001")));
+
+        verify(productService, times(1)).saveProduct(any(Product.class));
+    }
+
+    @Test
+    public void saveProducts() throws Exception {
+        BatchResult result = new BatchResult(10);
+        result.received();
+        result.inserted(1);
+        when(productBatchService.saveProducts(any(InputStream.class))).thenReturn(result);
+
+        String requestBody = new ObjectMapper().writeValueAsString(product) + "\n";
+
+        mockMvc.perform(post("/products/batch").content(requestBody).contentType(MediaTypes.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(jsonPath("$.received", is(1)))
+                .andExpect(jsonPath("$.inserted", is(1)))
+                .andExpect(jsonPath("$.failed", is(0)));
+
+        verify(productBatchService, times(1)).saveProducts(any(InputStream.class));
+        verifyNoMoreInteractions(productBatchService, productService);
+    }
+
+    @Test
+    public void saveProduct_Smile() throws Exception {
+        when(productService.saveProduct(any(Product.class))).thenReturn(product);
+
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+        byte[] requestBody = smileMapper.writeValueAsBytes(product);
+
+        byte[] responseBody = mockMvc.perform(post("/products").content(requestBody)
+                .contentType(MediaTypes.APPLICATION_SMILE).accept(MediaTypes.APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaTypes.APPLICATION_SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(smileMapper.readValue(responseBody, Product.class)).isEqualTo(product);
+        assertThat(responseBody.length).isLessThan(new ObjectMapper().writeValueAsBytes(product).length);
+
+        ArgumentCaptor<Product> saved = ArgumentCaptor.forClass(Product.class);
+        verify(productService, times(1)).saveProduct(saved.capture());
+        assertThat(saved.getValue()).isEqualTo(product);
+        verify(productService, times(1)).isWriteBehind();
         verifyNoMoreInteractions(productService);
     }
 
     @Test
     public void findProductById() throws Exception {
         when(productService.findProductById(anyLong())).thenReturn(product);
+        when(productService.tagProduct(product)).thenReturn("\"1a2b3c\"");
 
-        mockMvc.perform(get("/products/1").contentType(MediaType.APPLICATION_JSON))
+        read(get("/products/1").contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"1a2b3c\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
                 .andExpect(jsonPath("$.id", is(1)))
                 .andExpect(jsonPath("$.code", is("P001")))
                 .andExpect(jsonPath("$.name", is("Product 1")))
                 .andExpect(jsonPath("$.description", is("This is a cool product.")))
                 .andExpect(jsonPath("$.active", is(true)));
 
+        verify(productService, times(1)).findProductTagById(1L);
         verify(productService, times(1)).findProductById(anyLong());
+        verify(productService, times(1)).tagProduct(product);
+        verifyNoMoreInteractions(productService);
+    }
+
+    @Test
+    public void findProductById_NotModified() throws Exception {
+        when(productService.findProductTagById(anyLong())).thenReturn("\"1a2b3c\"");
+
+        read(get("/products/1").header(HttpHeaders.IF_NONE_MATCH, "\"1a2b3c\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"1a2b3c\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(content().string(""));
+
+        verify(productService, times(1)).findProductTagById(1L);
         verifyNoMoreInteractions(productService);
     }
 
+    @Test
+    public void findProductById_WeakTagNotModified() throws Exception {
+        when(productService.findProductTagById(anyLong())).thenReturn("\"1a2b3c\"");
+
+        read(get("/products/1").header(HttpHeaders.IF_NONE_MATCH, "W/\"1a2b3c\"")
+                .accept(MediaTypes.APPLICATION_SMILE))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"1a2b3c\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+    }
+
+    @Test
+    public void findProductById_Smile() throws Exception {
+        when(productService.findProductById(anyLong())).thenReturn(product);
+        when(productService.tagProduct(product)).thenReturn("\"1a2b3c\"");
+
+        byte[] body = read(get("/products/1").accept(MediaTypes.APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaTypes.APPLICATION_SMILE))
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"1a2b3c\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(new ObjectMapper(new SmileFactory()).readValue(body, Product.class)).isEqualTo(product);
+    }
+
     @Test
     public void findProductByCode() {
     }
 
+    @Test
+    public void findProductsByIds() throws Exception {
+        when(productService.findProductsByIds(Arrays.asList(1L, 2L)))
+                .thenReturn(new MultiGetResult<>(Arrays.asList(product), Arrays.asList(2L)));
+
+        read(get("/products?ids=1,2").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].code", is("P001")))
+                .andExpect(jsonPath("$.missing[0]", is(2)));
+
+        verify(productService, times(1)).findProductsByIds(Arrays.asList(1L, 2L));
+        verifyNoMoreInteractions(productService);
+    }
+
+    @Test
+    public void lookupProducts_Codes() throws Exception {
+        when(productService.findProductsByCodes(Arrays.asList("P001", "P404")))
+                .thenReturn(new MultiGetResult<>(Arrays.asList(product), Arrays.asList("P404")));
+
+        read(post("/products/lookup").content("{\"codes\": [\"P001\", \"P404\"]}")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id", is(1)))
+                .andExpect(jsonPath("$.missing[0]", is("P404")));
+
+        verify(productService, times(1)).findProductsByCodes(Arrays.asList("P001", "P404"));
+        verifyNoMoreInteractions(productService);
+    }
+
+    @Test
+    public void lookupProducts_BothKeys_BadRequest() throws Exception {
+        read(post("/products/lookup").content("{\"ids\": [1], \"codes\": [\"P001\"]}")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoMoreInteractions(productService);
+    }
+
+    @Test
+    public void findProductByCode_ChangedTag() throws Exception {
+        when(productService.findProductTagByCode(anyString())).thenReturn("\"1a2b3c\"");
+        when(productService.findProductByCode(anyString())).thenReturn(product);
+
+        read(get("/products/code/P001").header(HttpHeaders.IF_NONE_MATCH, "\"0a0b0c\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"1a2b3c\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(jsonPath("$.code", is("P001")));
+
+        verify(productService, times(1)).findProductTagByCode("P001");
+        verify(productService, times(1)).findProductByCode("P001");
+        verifyNoMoreInteractions(productService);
+    }
+
+    @Test
+    public void exportProducts() throws Exception {
+        mockMvc.perform(get("/products/export?format=json").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING));
+
+        verify(productExportService, times(1))
+                .exportProducts(any(OutputStream.class), eq(ProductExportService.Format.JSON));
+        verifyNoMoreInteractions(productExportService, productService);
+    }
+
+    @Test
+    public void exportProducts_GzipRefused() throws Exception {
+        mockMvc.perform(get("/products/export").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, *"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING));
+
+        verify(productExportService, times(1))
+                .exportProducts(any(OutputStream.class), eq(ProductExportService.Format.NDJSON));
+        verifyNoMoreInteractions(productExportService, productService);
+    }
+
+    @Test
+    public void acceptsGzip() {
+        assertThat(ProductController.acceptsGzip("gzip, deflate")).isTrue();
+        assertThat(ProductController.acceptsGzip("deflate, GZIP;q=0.5")).isTrue();
+        assertThat(ProductController.acceptsGzip("*")).isTrue();
+        assertThat(ProductController.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(ProductController.acceptsGzip("gzip; q=0.0, *;q=1")).isFalse();
+        assertThat(ProductController.acceptsGzip("deflate, br")).isFalse();
+        assertThat(ProductController.acceptsGzip("")).isFalse();
+    }
+
+    @Test
+    public void exportProducts_UnsupportedFormat() throws Exception {
+        mockMvc.perform(get("/products/export?format=xml"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoMoreInteractions(productExportService, productService);
+    }
+
     @Test
     public void findProductsByName() {
     }
 
+    @Test
+    public void suggestProducts() throws Exception {
+        when(productService.suggestProducts(anyString(), anyInt()))
+                .thenReturn(Arrays.asList(new ProductSuggestion(1L, "P001", "Product 1")));
+
+        mockMvc.perform(get("/products/autocomplete?prefix=prod&limit=500").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[0].code", is("P001")))
+                .andExpect(jsonPath("$[0].name", is("Product 1")));
+
+        verify(productService, times(1)).suggestProducts("prod", 100);
+        verifyNoMoreInteractions(productService);
+    }
+
     @Test
     public void findActiveProducts() {
     }
+
+    @Test
+    public void findActiveProducts_Cursor() throws Exception {
+        when(productService.findActiveProducts(anyString(), anyInt()))
+                .thenReturn(new CursorPage<>(Arrays.asList(product), "MTpQcm9kdWN0IDE"));
+
+        read(get("/products?cursor=&size=1").contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(jsonPath("$.content[0].code", is("P001")))
+                .andExpect(jsonPath("$.nextCursor", is("MTpQcm9kdWN0IDE")));
+
+        verify(productService, times(1)).findActiveProducts("", 1);
+        verifyNoMoreInteractions(productService);
+    }
+
+    /**
+     * Performs a read, which answers with a deferred result, and dispatches the result.
+     */
+    private ResultActions read(RequestBuilder builder) throws Exception {
+        MvcResult result = mockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
 }
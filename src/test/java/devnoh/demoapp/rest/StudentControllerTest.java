@@ -0,0 +1,132 @@
+package devnoh.demoapp.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import devnoh.demoapp.domain.Student;
+import devnoh.demoapp.service.StoreExecutors;
+import devnoh.demoapp.service.StudentBatchService;
+import devnoh.demoapp.service.StudentExportService;
+import devnoh.demoapp.service.StudentService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@WebMvcTest(StudentController.class)
+@Import(AsyncReads.class)
+public class StudentControllerTest {
+
+    private static final String ID = "5a9d6f1be4b0a5b1c8e4d2f7";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private StudentService studentService;
+
+    @MockBean
+    private StudentBatchService studentBatchService;
+
+    @MockBean
+    private StudentExportService studentExportService;
+
+    @MockBean
+    private StoreExecutors storeExecutors;
+
+    private Student student;
+
+    @Before
+    public void setUp() throws Exception {
+        student = new Student();
+        student.setId(ID);
+        student.setName("Jack Bauer");
+        student.setGrade(6);
+    }
+
+    @Test
+    public void findStudentById() throws Exception {
+        when(studentService.findStudentById(ID)).thenReturn(student);
+        when(studentService.tagStudent(student)).thenReturn("\"1a2b3c\"");
+
+        read(get("/students/" + ID).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"1a2b3c\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(jsonPath("$.name", is("Jack Bauer")));
+    }
+
+    @Test
+    public void findStudentById_RootPath() throws Exception {
+        when(studentService.findStudentById(ID)).thenReturn(student);
+        when(studentService.tagStudent(student)).thenReturn("\"1a2b3c\"");
+
+        read(get("/" + ID).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Jack Bauer")));
+    }
+
+    @Test
+    public void findStudentById_Smile() throws Exception {
+        when(studentService.findStudentById(ID)).thenReturn(student);
+        when(studentService.tagStudent(student)).thenReturn("\"1a2b3c\"");
+
+        byte[] body = read(get("/students/" + ID).accept(MediaTypes.APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaTypes.APPLICATION_SMILE))
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"1a2b3c\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(new ObjectMapper(new SmileFactory()).readValue(body, Student.class)).isEqualTo(student);
+    }
+
+    @Test
+    public void findStudentById_NotModified() throws Exception {
+        when(studentService.findStudentTagById(ID)).thenReturn("\"1a2b3c\"");
+
+        read(get("/students/" + ID).header(HttpHeaders.IF_NONE_MATCH, "W/\"1a2b3c\"")
+                .accept(MediaTypes.APPLICATION_SMILE))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"1a2b3c\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(content().string(""));
+
+        verify(studentService, times(1)).findStudentTagById(ID);
+        verify(studentService, never()).findStudentById(ID);
+    }
+
+    /**
+     * Performs a read, which answers with a deferred result, and dispatches the result.
+     */
+    private ResultActions read(RequestBuilder builder) throws Exception {
+        MvcResult result = mockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+
+}
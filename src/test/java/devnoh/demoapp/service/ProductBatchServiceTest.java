@@ -0,0 +1,166 @@
+package devnoh.demoapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import devnoh.demoapp.domain.Product;
+import devnoh.demoapp.repository.ProductRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.validation.Validation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ProductBatchServiceTest {
+
+    @InjectMocks
+    private ProductBatchService productBatchService;
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Before
+    public void setUp() throws Exception {
+        when(transactionTemplate.execute(Matchers.<TransactionCallback<Object>>any()))
+                .thenAnswer(invocation ->
+                        ((TransactionCallback<?>) invocation.getArguments()[0]).doInTransaction(null));
+        when(productRepository.findIdsByIdIn(anyCollectionOf(Long.class))).thenReturn(Collections.singletonList(3L));
+        ReflectionTestUtils.setField(productBatchService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(productBatchService, "validator",
+                Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(productBatchService, "chunkSize", 2);
+        ReflectionTestUtils.setField(productBatchService, "maxErrors", 10);
+    }
+
+    @Test
+    public void saveProducts_JsonArray() throws Exception {
+        BatchResult result = productBatchService.saveProducts(body("["
+                + "{\"code\": \"P001\", \"name\": \"Product 1\"},"
+                + "{\"code\": \"P002\", \"name\": \"Product 2\"},"
+                + "{\"id\": 3, \"code\": \"P003\", \"name\": \"Product 3\"}"
+                + "]"));
+
+        assertThat(result.getReceived()).isEqualTo(3);
+        assertThat(result.getInserted()).isEqualTo(2);
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(0);
+
+        verify(productService, times(2)).saveProducts(anyListOf(Product.class));
+        verify(entityManager, times(2)).clear();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void saveProducts_UnknownId_Inserted() throws Exception {
+        List<Long> savedIds = new ArrayList<>();
+        when(productService.saveProducts(anyListOf(Product.class))).thenAnswer(invocation -> {
+            ((List<Product>) invocation.getArguments()[0]).forEach(product -> savedIds.add(product.getId()));
+            return null;
+        });
+
+        BatchResult result = productBatchService.saveProducts(body("["
+                + "{\"id\": 3, \"code\": \"P003\", \"name\": \"Product 3\"},"
+                + "{\"id\": 404, \"code\": \"P404\", \"name\": \"Product 404\"}"
+                + "]"));
+
+        assertThat(result.getInserted()).isEqualTo(1);
+        assertThat(result.getUpdated()).isEqualTo(1);
+
+        assertThat(savedIds).containsExactly(3L, null);
+        verify(productService, times(1)).saveProducts(anyListOf(Product.class));
+        verify(productRepository, times(1)).findIdsByIdIn(Arrays.asList(3L, 404L));
+    }
+
+    @Test
+    public void saveProducts_Ndjson() throws Exception {
+        BatchResult result = productBatchService.saveProducts(body(
+                "{\"code\": \"P001\", \"name\": \"Product 1\"}\n"
+                        + "{\"code\": \"P002\", \"name\": \"Product 2\"}\n"));
+
+        assertThat(result.getReceived()).isEqualTo(2);
+        assertThat(result.getInserted()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(0);
+
+        verify(productService, times(1)).saveProducts(anyListOf(Product.class));
+    }
+
+    @Test
+    public void saveProducts_InvalidRows() throws Exception {
+        BatchResult result = productBatchService.saveProducts(body(
+                "{\"code\": \"P001\"}\n"
+                        + "{\"code\": \"P002\", \"name\": \"Product 2\", \"active\": \"maybe\"}\n"
+                        + "{\"code\": \"P003\", \"name\": \"Product 3\"}\n"));
+
+        assertThat(result.getReceived()).isEqualTo(3);
+        assertThat(result.getInserted()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting("row").containsExactly(1L, 2L);
+        assertThat(result.getErrors().get(0).getKey()).isEqualTo("P001");
+        assertThat(result.getErrors().get(0).getMessage()).contains("name");
+    }
+
+    @Test
+    public void saveProducts_ChunkFailure_RetriesRowByRow() throws Exception {
+        when(productService.saveProducts(anyListOf(Product.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate code"))
+                .thenReturn(null)
+                .thenThrow(new DataIntegrityViolationException("Duplicate code"));
+
+        BatchResult result = productBatchService.saveProducts(body("["
+                + "{\"code\": \"P001\", \"name\": \"Product 1\"},"
+                + "{\"code\": \"P001\", \"name\": \"Product 1\"}"
+                + "]"));
+
+        assertThat(result.getInserted()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting("row").containsExactly(2L);
+
+        verify(productService, times(3)).saveProducts(anyListOf(Product.class));
+    }
+
+    @Test
+    public void saveProducts_MalformedInput() throws Exception {
+        BatchResult result = productBatchService.saveProducts(body(
+                "{\"code\": \"P001\", \"name\": \"Product 1\"}\n{\"code\": "));
+
+        assertThat(result.getInserted()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getErrors().get(0).getMessage()).startsWith("Malformed input");
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,176 @@
+package devnoh.demoapp.service;
+
+import devnoh.demoapp.domain.Product;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProductCacheTest {
+
+    private ProductCache productCache;
+
+    private Product product;
+
+    private AtomicInteger loads;
+
+    @Before
+    public void setUp() throws Exception {
+        productCache = new ProductCache(100, 60);
+
+        product = new Product();
+        product.setId(1L);
+        product.setCode("P001");
+        product.setName("Product 1");
+        product.setDescription("This is a cool product.");
+        product.setActive(true);
+
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    public void getById() {
+        assertThat(productCache.getById(1L, this::load)).isEqualTo(product);
+        assertThat(productCache.getById(1L, this::load)).isEqualTo(product);
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void getByCode_SharesEntryWithId() {
+        assertThat(productCache.getById(1L, this::load)).isEqualTo(product);
+        assertThat(productCache.getByCode("P001", code -> load(1L))).isEqualTo(product);
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void getById_NotFound_NotCached() {
+        assertThat(productCache.getById(2L, id -> {
+            loads.incrementAndGet();
+            return null;
+        })).isNull();
+        assertThat(productCache.getById(2L, this::load)).isEqualTo(product);
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void evict() {
+        productCache.getById(1L, this::load);
+        productCache.evict(product);
+        productCache.getById(1L, this::load);
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void tag() {
+        assertThat(productCache.getTagById(1L)).isNull();
+        String tag = productCache.tag(productCache.getById(1L, this::load));
+        assertThat(tag).startsWith("\"").endsWith("\"");
+        assertThat(productCache.getTagById(1L)).isEqualTo(tag);
+        assertThat(productCache.getTagByCode("P001")).isEqualTo(tag);
+
+        productCache.evict(product);
+        assertThat(productCache.getTagById(1L)).isNull();
+        assertThat(productCache.getTagByCode("P001")).isNull();
+    }
+
+    @Test
+    public void tag_NotCachedInstance_NotKept() {
+        productCache.getById(1L, this::load);
+        Product renamed = new Product();
+        renamed.setId(1L);
+        renamed.setCode("P001");
+        renamed.setName("Product 1 renamed");
+
+        assertThat(productCache.tag(renamed)).isNotEqualTo(productCache.tag(product));
+        assertThat(productCache.getTagById(1L)).isEqualTo(productCache.tag(product));
+    }
+
+    @Test
+    public void getAllById() {
+        Product product2 = new Product();
+        product2.setId(2L);
+        product2.setCode("P002");
+        productCache.getById(1L, this::load);
+
+        List<Collection<Long>> loaded = new ArrayList<>();
+        Map<Long, Product> found = productCache.getAllById(Arrays.asList(2L, 3L, 1L), ids -> {
+            loaded.add(new ArrayList<>(ids));
+            return Collections.singletonList(product2);
+        });
+
+        assertThat(found.keySet()).containsExactly(2L, 1L);
+        assertThat(found.values()).containsExactly(product2, product);
+        assertThat(loaded).containsExactly(Arrays.asList(2L, 3L));
+        assertThat(productCache.getById(2L, id -> null)).isEqualTo(product2);
+    }
+
+    @Test
+    public void getAllByCode() {
+        productCache.getById(1L, this::load);
+
+        List<Collection<String>> loaded = new ArrayList<>();
+        Map<String, Product> found = productCache.getAllByCode(Arrays.asList("P404", "P001"), codes -> {
+            loaded.add(new ArrayList<>(codes));
+            return Collections.emptyList();
+        });
+
+        assertThat(found.keySet()).containsExactly("P001");
+        assertThat(loaded).containsExactly(Collections.singletonList("P404"));
+    }
+
+    @Test
+    public void getByCode_CodeChanged() {
+        productCache.getByCode("P001", code -> load(1L));
+
+        Product renamed = new Product();
+        renamed.setId(1L);
+        renamed.setCode("P002");
+        productCache.evict(renamed);
+        productCache.getById(1L, id -> renamed);
+
+        assertThat(productCache.getByCode("P001", code -> null)).isNull();
+        assertThat(productCache.getByCode("P002", code -> null)).isEqualTo(renamed);
+    }
+
+    @Test
+    public void getById_LoadRacingEviction_NotCached() {
+        productCache.getById(1L, id -> {
+            productCache.evict(product);
+            return load(id);
+        });
+        productCache.getById(1L, this::load);
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void metrics() {
+        productCache.getById(1L, this::load);
+        productCache.getById(1L, this::load);
+        productCache.evict(product);
+
+        Map<String, Number> metrics = new HashMap<>();
+        for (Metric<?> metric : productCache.metrics()) {
+            metrics.put(metric.getName(), metric.getValue());
+        }
+        assertThat(metrics.get("cache.product.hits")).isEqualTo(1L);
+        assertThat(metrics.get("cache.product.misses")).isEqualTo(1L);
+        assertThat(metrics.get("cache.product.invalidations")).isEqualTo(1L);
+        assertThat(metrics).containsKeys("cache.product.size", "cache.product.evictions");
+    }
+
+    private Product load(Long id) {
+        loads.incrementAndGet();
+        return product;
+    }
+
+}
@@ -0,0 +1,98 @@
+package devnoh.demoapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import devnoh.demoapp.domain.Product;
+import devnoh.demoapp.repository.ProductRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ProductExportServiceTest {
+
+    @InjectMocks
+    private ProductExportService productExportService;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    private Product product1;
+
+    private Product product2;
+
+    @Before
+    public void setUp() throws Exception {
+        product1 = new Product();
+        product1.setId(1L);
+        product1.setCode("P001");
+        product1.setName("Product 1");
+        product1.setActive(true);
+
+        product2 = new Product();
+        product2.setId(2L);
+        product2.setCode("P002");
+        product2.setName("Product 2");
+    }
+
+    @Test
+    public void exportProducts_Ndjson() throws Exception {
+        when(productRepository.streamAllBy()).thenReturn(Stream.of(product1, product2));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = productExportService.exportProducts(out, ProductExportService.Format.NDJSON);
+
+        assertThat(count).isEqualTo(2);
+        String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[1]).startsWith("{");
+        assertThat(objectMapper.readValue(lines[0], Product.class)).isEqualTo(product1);
+        assertThat(objectMapper.readValue(lines[1], Product.class)).isEqualTo(product2);
+
+        verify(entityManager, times(1)).detach(product1);
+        verify(entityManager, times(1)).detach(product2);
+        verifyNoMoreInteractions(entityManager);
+    }
+
+    @Test
+    public void exportProducts_Json() throws Exception {
+        when(productRepository.streamAllBy()).thenReturn(Stream.of(product1, product2));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        productExportService.exportProducts(out, ProductExportService.Format.JSON);
+
+        Product[] products = objectMapper.readValue(out.toByteArray(), Product[].class);
+        assertThat(products).containsExactly(product1, product2);
+    }
+
+    @Test
+    public void exportProducts_Empty() throws Exception {
+        when(productRepository.streamAllBy()).thenReturn(Stream.empty());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        productExportService.exportProducts(out, ProductExportService.Format.JSON);
+
+        assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8)).isEqualTo("[]");
+    }
+
+}
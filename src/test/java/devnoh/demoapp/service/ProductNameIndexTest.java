@@ -0,0 +1,93 @@
+package devnoh.demoapp.service;
+
+import devnoh.demoapp.domain.Product;
+import devnoh.demoapp.repository.ProductRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ProductNameIndexTest {
+
+    @InjectMocks
+    private ProductNameIndex productNameIndex;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private Product product1;
+
+    private Product product2;
+
+    @Before
+    public void setUp() throws Exception {
+        product1 = product(1L, "P001", "iPhone 7 Plus");
+        product2 = product(2L, "P002", "Pixel 2");
+
+        when(productRepository.streamAllBy()).thenReturn(Stream.of(product1, product2));
+        productNameIndex.rebuild();
+    }
+
+    @Test
+    public void suggest_NamePrefix() {
+        assertThat(productNameIndex.suggest("IPH", 10)).extracting("id").containsExactly(1L);
+        assertThat(productNameIndex.suggest("pi", 10)).extracting("id").containsExactly(2L);
+    }
+
+    @Test
+    public void suggest_WordPrefix() {
+        assertThat(productNameIndex.suggest("plu", 10)).extracting("name").containsExactly("iPhone 7 Plus");
+        assertThat(productNameIndex.suggest("2", 10)).extracting("code").containsExactly("P002");
+    }
+
+    @Test
+    public void suggest_CodePrefix() {
+        assertThat(productNameIndex.suggest("p00", 10)).extracting("id").containsExactly(1L, 2L);
+        assertThat(productNameIndex.suggest("p00", 1)).extracting("id").containsExactly(1L);
+    }
+
+    @Test
+    public void suggest_NoMatch() {
+        assertThat(productNameIndex.suggest("galaxy", 10)).isEmpty();
+        assertThat(productNameIndex.suggest(" ", 10)).isEmpty();
+    }
+
+    @Test
+    public void update() {
+        productNameIndex.update(product(1L, "P001", "iPhone 8"));
+        productNameIndex.update(product(3L, "P003", "Galaxy S8"));
+
+        assertThat(productNameIndex.suggest("plus", 10)).isEmpty();
+        assertThat(productNameIndex.suggest("iphone 8", 10)).extracting("name").containsExactly("iPhone 8");
+        assertThat(productNameIndex.suggest("gal", 10)).extracting("id").containsExactly(3L);
+        assertThat(productNameIndex.size()).isEqualTo(3);
+    }
+
+    @Test
+    public void rebuild_KeepsNewerUpdates() {
+        productNameIndex.update(product(2L, "P002", "Pixel 3"));
+
+        when(productRepository.streamAllBy()).thenReturn(Stream.of(product2));
+        productNameIndex.rebuild();
+
+        assertThat(productNameIndex.suggest("pixel", 10)).extracting("name").containsExactly("Pixel 3");
+    }
+
+    private static Product product(Long id, String code, String name) {
+        Product product = new Product();
+        product.setId(id);
+        product.setCode(code);
+        product.setName(name);
+        product.setActive(true);
+        return product;
+    }
+
+}
@@ -7,20 +7,33 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.boot.actuate.metrics.Metric;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -35,6 +48,12 @@ public class ProductServiceMockitoTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Spy
+    private ProductCache productCache = new ProductCache(100, 60);
+
+    @Mock
+    private ProductNameIndex productNameIndex;
+
     private Product product;
 
     @Before
@@ -58,6 +77,20 @@ public class ProductServiceMockitoTest {
 
         verify(productRepository, times(1)).save(any(Product.class));
         verifyNoMoreInteractions(productRepository);
+        verify(productNameIndex, times(1)).update(product);
+    }
+
+    @Test
+    public void saveProduct_WriteBehind() {
+        ProductWriteBehind productWriteBehind = mock(ProductWriteBehind.class);
+        ReflectionTestUtils.setField(productService, "productWriteBehind", productWriteBehind);
+
+        Product saved = productService.saveProduct(product);
+        assertThat(saved).isSameAs(product);
+        assertThat(productService.isWriteBehind()).isTrue();
+
+        verify(productWriteBehind, times(1)).enqueue(product);
+        verifyNoMoreInteractions(productRepository, productNameIndex);
     }
 
     @Test
@@ -71,6 +104,32 @@ public class ProductServiceMockitoTest {
         verifyNoMoreInteractions(productRepository);
     }
 
+    @Test
+    public void findProductById_Cached() {
+        when(productRepository.findOne(anyLong())).thenReturn(product);
+
+        productService.findProductById(1L);
+        Product found = productService.findProductById(1L);
+        assertThat(found).isEqualTo(product);
+
+        verify(productRepository, times(1)).findOne(anyLong());
+        verifyNoMoreInteractions(productRepository);
+    }
+
+    @Test
+    public void findProductByCode_EvictedOnSave() {
+        when(productRepository.findByCode(anyString())).thenReturn(product);
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+
+        productService.findProductByCode("P001");
+        productService.saveProduct(product);
+        productService.findProductByCode("P001");
+
+        verify(productRepository, times(2)).findByCode(anyString());
+        verify(productRepository, times(1)).save(any(Product.class));
+        verifyNoMoreInteractions(productRepository);
+    }
+
     @Test
     public void findProductByCode() {
         when(productRepository.findByCode(anyString())).thenReturn(product);
@@ -82,6 +141,41 @@ public class ProductServiceMockitoTest {
         verifyNoMoreInteractions(productRepository);
     }
 
+    @Test
+    public void findProductByCode_ConcurrentMisses_OneQuery() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(productRepository.findByCode(anyString())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return product;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Product> leader = executor.submit(() -> productService.findProductByCode("P001"));
+            Future<Product> follower = executor.submit(() -> productService.findProductByCode("P001"));
+            while (metrics().get("product.lookup.collapsed").longValue() == 0) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(product);
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo(product);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(productRepository, times(1)).findByCode("P001");
+        verifyNoMoreInteractions(productRepository);
+        assertThat(metrics().get("product.lookup.in-flight")).isEqualTo(0);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void findProductById_QueryFails_Rethrown() {
+        when(productRepository.findOne(anyLong())).thenThrow(new IllegalStateException("Database down"));
+
+        productService.findProductById(1L);
+    }
+
     @Test
     public void findProductsByName() {
         when(productRepository.findByName(anyString())).thenReturn(Arrays.asList(product));
@@ -107,4 +201,89 @@ public class ProductServiceMockitoTest {
         verify(productRepository, times(1)).findByActiveIsTrue(any(Pageable.class));
         verifyNoMoreInteractions(productRepository);
     }
+
+    @Test
+    public void findActiveProducts_Cursor() {
+        Product product2 = new Product();
+        product2.setId(2L);
+        product2.setCode("P002");
+        product2.setName("Product 2");
+
+        when(productRepository.findByActiveIsTrueOrderByNameAscIdAsc(any(Pageable.class)))
+                .thenReturn(Arrays.asList(product, product2));
+        when(productRepository.findActiveAfter(anyString(), anyLong(), any(Pageable.class)))
+                .thenReturn(Arrays.asList(product2));
+
+        CursorPage<Product> first = productService.findActiveProducts("", 1);
+        assertThat(first.getContent()).containsExactly(product);
+        assertThat(first.getNextCursor()).isNotNull();
+
+        CursorPage<Product> next = productService.findActiveProducts(first.getNextCursor(), 1);
+        assertThat(next.getContent()).containsExactly(product2);
+        assertThat(next.getNextCursor()).isNull();
+
+        verify(productRepository, times(1)).findByActiveIsTrueOrderByNameAscIdAsc(any(Pageable.class));
+        verify(productRepository, times(1)).findActiveAfter(eq("Product 1"), eq(1L), any(Pageable.class));
+        verifyNoMoreInteractions(productRepository);
+    }
+
+    @Test(expected = InvalidCursorException.class)
+    public void findActiveProducts_InvalidCursor() {
+        productService.findActiveProducts("not-a-cursor", 5);
+    }
+
+    @Test
+    public void suggestProducts() {
+        ProductSuggestion suggestion = new ProductSuggestion(1L, "P001", "Product 1");
+        when(productNameIndex.suggest(anyString(), anyInt())).thenReturn(Arrays.asList(suggestion));
+
+        List<ProductSuggestion> found = productService.suggestProducts("prod", 10);
+        assertThat(found).containsExactly(suggestion);
+
+        verify(productNameIndex, times(1)).suggest("prod", 10);
+        verifyNoMoreInteractions(productRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void findProductsByIds_ChunkedInQueries() {
+        ReflectionTestUtils.setField(productService, "multiGetChunkSize", 2);
+        Product product3 = new Product();
+        product3.setId(3L);
+        product3.setCode("P003");
+        productCache.getById(1L, id -> product);
+        when(productRepository.findByIdIn(any(List.class)))
+                .thenReturn(Arrays.asList(product3))
+                .thenReturn(Arrays.asList());
+
+        MultiGetResult<Long, Product> found = productService.findProductsByIds(Arrays.asList(3L, 1L, 4L, 5L, 3L));
+        assertThat(found.getItems()).containsExactly(product3, product);
+        assertThat(found.getMissing()).containsExactly(4L, 5L);
+
+        verify(productRepository, times(1)).findByIdIn(Arrays.asList(3L, 4L));
+        verify(productRepository, times(1)).findByIdIn(Arrays.asList(5L));
+        verifyNoMoreInteractions(productRepository);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void findProductsByCodes() {
+        when(productRepository.findByCodeIn(any(List.class))).thenReturn(Arrays.asList(product));
+
+        MultiGetResult<String, Product> found = productService.findProductsByCodes(Arrays.asList("P404", "P001"));
+        assertThat(found.getItems()).containsExactly(product);
+        assertThat(found.getMissing()).containsExactly("P404");
+
+        found = productService.findProductsByCodes(Arrays.asList("P001"));
+        assertThat(found.getItems()).containsExactly(product);
+
+        verify(productRepository, times(1)).findByCodeIn(Arrays.asList("P404", "P001"));
+        verifyNoMoreInteractions(productRepository);
+    }
+
+    private Map<String, Number> metrics() {
+        return productService.metrics().stream()
+                .collect(Collectors.toMap(Metric::getName, Metric::getValue));
+    }
+
 }
@@ -38,18 +38,31 @@ public class ProductServiceTest {
         public ProductService productService() {
             return new ProductService();
         }
+
+        @Bean
+        public ProductCache productCache() {
+            return new ProductCache(100, 60);
+        }
     }
 
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductCache productCache;
+
     @MockBean
     private ProductRepository productRepository;
 
+    @MockBean
+    private ProductNameIndex productNameIndex;
+
     private Product product;
 
     @Before
     public void setUp() throws Exception {
+        productCache.clear();
+
         product = new Product();
         product.setId(1L);
         product.setCode("P001");
@@ -0,0 +1,204 @@
+package devnoh.demoapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import devnoh.demoapp.domain.Product;
+import devnoh.demoapp.jms.JmsMessageSender;
+import devnoh.demoapp.jms.JmsQueueStatistics;
+import devnoh.demoapp.repository.ProductRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ProductWriteBehindTest {
+
+    @InjectMocks
+    private ProductWriteBehind productWriteBehind;
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private JmsMessageSender jmsMessageSender;
+
+    @Mock
+    private JmsQueueStatistics jmsQueueStatistics;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Captor
+    private ArgumentCaptor<List<Product>> savedProducts;
+
+    @Before
+    public void setUp() throws Exception {
+        ReflectionTestUtils.setField(productWriteBehind, "queue", "product.write-behind");
+        ReflectionTestUtils.setField(productWriteBehind, "deadLetterQueue", "DLQ.product.write-behind");
+        when(transactionTemplate.execute(Matchers.<TransactionCallback<Object>>any()))
+                .thenAnswer(invocation ->
+                        ((TransactionCallback<?>) invocation.getArguments()[0]).doInTransaction(null));
+        productWriteBehind.init();
+    }
+
+    @Test
+    public void enqueue() throws Exception {
+        productWriteBehind.enqueue(product(null, "P001", "Product 1"));
+
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(jmsMessageSender, times(1)).send(eq("product.write-behind"), message.capture());
+        assertThat(objectMapper.readValue(message.getValue(), Product.class).getCode()).isEqualTo("P001");
+    }
+
+    @Test
+    public void metrics_PendingIsQueueDepth() {
+        when(jmsQueueStatistics.queueDepth("product.write-behind")).thenReturn(42L);
+
+        assertThat(metrics().get("product.write-behind.pending")).isEqualTo(42L);
+    }
+
+    @Test
+    public void metrics_QueueDepthUnknown_NoPending() {
+        when(jmsQueueStatistics.queueDepth("product.write-behind")).thenReturn(-1L);
+
+        assertThat(metrics()).doesNotContainKey("product.write-behind.pending");
+    }
+
+    @Test
+    public void onMessages_LastWriteWinsPerCode() throws Exception {
+        Product existing = product(7L, "P002", "Product 2");
+        when(productRepository.findByCodeIn(anyCollectionOf(String.class)))
+                .thenReturn(Collections.singletonList(existing));
+
+        productWriteBehind.onMessages(Arrays.asList(
+                json(product(null, "P001", "Product 1")),
+                json(product(null, "P002", "Product 2 v1")),
+                json(product(null, "P001", "Product 1 v2")),
+                json(product(null, "P002", "Product 2 v2"))));
+
+        verify(productService, times(1)).saveProducts(savedProducts.capture());
+        List<Product> products = savedProducts.getValue();
+        assertThat(products).extracting("code").containsExactly("P001", "P002");
+        assertThat(products).extracting("name").containsExactly("Product 1 v2", "Product 2 v2");
+        assertThat(products).extracting("id").containsExactly(null, 7L);
+
+        Map<String, Number> metrics = metrics();
+        assertThat(metrics.get("product.write-behind.persisted")).isEqualTo(2L);
+        assertThat(metrics.get("product.write-behind.coalesced")).isEqualTo(2L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void onMessages_BadProduct_RetriedOneByOne() throws Exception {
+        when(productRepository.findByCodeIn(anyCollectionOf(String.class))).thenReturn(Collections.emptyList());
+        List<String> saved = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<Product> products = (List<Product>) invocation.getArguments()[0];
+            if (products.stream().anyMatch(product -> product.getCode().equals("P002"))) {
+                throw new DataIntegrityViolationException("Name too long");
+            }
+            products.forEach(product -> saved.add(product.getCode()));
+            return products;
+        }).when(productService).saveProducts(anyListOf(Product.class));
+
+        String bad = json(product(null, "P002", "Product 2"));
+        productWriteBehind.onMessages(Arrays.asList(
+                json(product(null, "P001", "Product 1")), bad, json(product(null, "P003", "Product 3"))));
+
+        assertThat(saved).containsExactly("P001", "P003");
+        verify(jmsMessageSender, times(1)).send("DLQ.product.write-behind", bad);
+        Map<String, Number> metrics = metrics();
+        assertThat(metrics.get("product.write-behind.failed")).isEqualTo(1L);
+        assertThat(metrics.get("product.write-behind.persisted")).isEqualTo(2L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void onMessages_BatchFails_RenameKeepsId() throws Exception {
+        when(productRepository.findByCodeIn(anyCollectionOf(String.class))).thenReturn(Collections.emptyList());
+        List<Long> savedIds = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<Product> products = (List<Product>) invocation.getArguments()[0];
+            if (products.size() > 1) {
+                products.stream().filter(product -> product.getId() == null).forEach(product -> product.setId(99L));
+                throw new DataIntegrityViolationException("Batch failed");
+            }
+            products.forEach(product -> savedIds.add(product.getId()));
+            return products;
+        }).when(productService).saveProducts(anyListOf(Product.class));
+
+        productWriteBehind.onMessages(Arrays.asList(
+                json(product(5L, "P005-RENAMED", "Product 5")), json(product(null, "P006", "Product 6"))));
+
+        assertThat(savedIds).containsExactly(5L, null);
+        verify(productRepository).findByCodeIn(Collections.singleton("P006"));
+    }
+
+    @Test
+    public void onMessages_UnreadableMessage_DeadLettered() throws Exception {
+        String unreadable = "{\"code\": ";
+        productWriteBehind.onMessages(Collections.singletonList(unreadable));
+
+        verify(jmsMessageSender, times(1)).send("DLQ.product.write-behind", unreadable);
+        verify(productRepository, never()).findByCodeIn(anyCollectionOf(String.class));
+        verify(productService, never()).saveProducts(anyListOf(Product.class));
+        Map<String, Number> metrics = metrics();
+        assertThat(metrics.get("product.write-behind.failed")).isEqualTo(1L);
+        assertThat(metrics.get("product.write-behind.persisted")).isEqualTo(0L);
+        assertThat(metrics.get("product.write-behind.coalesced")).isEqualTo(0L);
+    }
+
+    private Map<String, Number> metrics() {
+        return productWriteBehind.metrics().stream()
+                .collect(Collectors.toMap(Metric::getName, Metric::getValue));
+    }
+
+    private String json(Product product) throws Exception {
+        return objectMapper.writeValueAsString(product);
+    }
+
+    private static Product product(Long id, String code, String name) {
+        Product product = new Product();
+        product.setId(id);
+        product.setCode(code);
+        product.setName(name);
+        product.setActive(true);
+        return product;
+    }
+
+}
@@ -0,0 +1,107 @@
+package devnoh.demoapp.service;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+public class StoreExecutorsTest {
+
+    private ThreadPoolTaskExecutor jpaExecutor;
+
+    private ThreadPoolTaskExecutor mongoExecutor;
+
+    private StoreExecutors storeExecutors;
+
+    private CountDownLatch release;
+
+    @Before
+    public void setUp() throws Exception {
+        jpaExecutor = executor(10);
+        mongoExecutor = executor(1);
+        storeExecutors = new StoreExecutors(jpaExecutor, mongoExecutor);
+        release = new CountDownLatch(1);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        release.countDown();
+        jpaExecutor.shutdown();
+        mongoExecutor.shutdown();
+    }
+
+    @Test
+    public void supplyJpa() throws Exception {
+        CompletableFuture<String> future = storeExecutors.supplyJpa(() -> Thread.currentThread().getName());
+        assertThat(future.get(1, TimeUnit.SECONDS)).startsWith("test-");
+    }
+
+    @Test
+    public void supplyMongo_QueueFull_Rejected() throws Exception {
+        storeExecutors.supplyMongo(this::block);
+        storeExecutors.supplyMongo(this::block);
+
+        CompletableFuture<String> rejected = storeExecutors.supplyMongo(() -> "never");
+        try {
+            rejected.get(1, TimeUnit.SECONDS);
+            fail("Expected a StoreBusyException");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).isInstanceOf(StoreBusyException.class);
+        }
+        assertThat(storeExecutors.supplyJpa(() -> "jpa").get(1, TimeUnit.SECONDS)).isEqualTo("jpa");
+
+        Map<String, Number> metrics = metrics();
+        assertThat(metrics.get("executor.mongo.queue")).isEqualTo(1);
+        assertThat(metrics.get("executor.mongo.rejected")).isEqualTo(1L);
+        assertThat(metrics.get("executor.jpa.rejected")).isEqualTo(0L);
+    }
+
+    @Test
+    public void supplyJpa_CancelledWhileQueued_Skipped() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        storeExecutors.supplyJpa(this::block);
+        CompletableFuture<Integer> queued = storeExecutors.supplyJpa(calls::incrementAndGet);
+        queued.cancel(false);
+        release.countDown();
+
+        assertThat(storeExecutors.supplyJpa(() -> "done").get(1, TimeUnit.SECONDS)).isEqualTo("done");
+        assertThat(calls.get()).isEqualTo(0);
+        assertThat(metrics().get("executor.jpa.abandoned")).isEqualTo(1L);
+    }
+
+    private String block() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "released";
+    }
+
+    private Map<String, Number> metrics() {
+        return storeExecutors.metrics().stream().collect(Collectors.toMap(Metric::getName, Metric::getValue));
+    }
+
+    private static ThreadPoolTaskExecutor executor(int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("test-");
+        executor.initialize();
+        return executor;
+    }
+
+}
@@ -0,0 +1,172 @@
+package devnoh.demoapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.BasicDBObject;
+import com.mongodb.BulkWriteError;
+import com.mongodb.BulkWriteResult;
+import com.mongodb.BulkWriteUpsert;
+import devnoh.demoapp.domain.Student;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.MongoDbFactory;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.DefaultDbRefResolver;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import javax.validation.Validation;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class StudentBatchServiceTest {
+
+    @InjectMocks
+    private StudentBatchService studentBatchService;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private StudentService studentService;
+
+    @Before
+    public void setUp() throws Exception {
+        ReflectionTestUtils.setField(studentBatchService, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(studentBatchService, "validator",
+                Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(studentBatchService, "chunkSize", 2);
+        ReflectionTestUtils.setField(studentBatchService, "maxErrors", 10);
+
+        MappingMongoConverter converter = new MappingMongoConverter(
+                new DefaultDbRefResolver(mock(MongoDbFactory.class)), new MongoMappingContext());
+        converter.afterPropertiesSet();
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(mongoTemplate.bulkOps(BulkMode.UNORDERED, Student.class)).thenReturn(bulkOperations);
+    }
+
+    @Test
+    public void saveStudents_JsonArray() throws Exception {
+        BulkWriteResult inserted = bulkResult(2, 0, 0);
+        BulkWriteResult updated = bulkResult(0, 1, 0);
+        when(bulkOperations.execute()).thenReturn(inserted).thenReturn(updated);
+
+        BatchResult result = studentBatchService.saveStudents(body("["
+                + "{\"name\": \"Jack Bauer\", \"grade\": 6},"
+                + "{\"name\": \"Tony Almeida\", \"grade\": 4},"
+                + "{\"id\": \"5a9d6f1be4b0a5b1c8e4d2f7\", \"name\": \"Chloe O'Brian\", \"grade\": 5}"
+                + "]"));
+
+        assertThat(result.getReceived()).isEqualTo(3);
+        assertThat(result.getInserted()).isEqualTo(2);
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(0);
+
+        verify(bulkOperations, times(2)).insert(any(Student.class));
+        verify(bulkOperations, times(1)).upsert(any(Query.class), any(Update.class));
+        verify(bulkOperations, times(2)).execute();
+        verify(studentService, times(1)).studentsSaved(Collections.emptyList());
+        verify(studentService, times(1)).studentsSaved(asList("5a9d6f1be4b0a5b1c8e4d2f7"));
+    }
+
+    @Test
+    public void saveStudents_Ndjson_UpsertInserted() throws Exception {
+        BulkWriteResult upserted = bulkResult(0, 0, 1);
+        when(bulkOperations.execute()).thenReturn(upserted);
+
+        BatchResult result = studentBatchService.saveStudents(body(
+                "{\"id\": \"5a9d6f1be4b0a5b1c8e4d2f7\", \"name\": \"Jack Bauer\", \"grade\": 6}\n"));
+
+        assertThat(result.getReceived()).isEqualTo(1);
+        assertThat(result.getInserted()).isEqualTo(1);
+        assertThat(result.getUpdated()).isEqualTo(0);
+    }
+
+    @Test
+    public void saveStudents_RowErrors() throws Exception {
+        BulkOperationException exception = mock(BulkOperationException.class);
+        BulkWriteResult partial = bulkResult(1, 0, 0);
+        when(exception.getResult()).thenReturn(partial);
+        when(exception.getErrors()).thenReturn(Collections.singletonList(
+                new BulkWriteError(11000, "E11000 duplicate key", new BasicDBObject(), 0)));
+        when(bulkOperations.execute()).thenThrow(exception);
+
+        BatchResult result = studentBatchService.saveStudents(body(
+                "{\"id\": \"5a9d6f1be4b0a5b1c8e4d2f7\", \"name\": \"Jack Bauer\", \"grade\": \"six\"}\n"
+                        + "{\"id\": \"5a9d6f1be4b0a5b1c8e4d2f8\", \"name\": \"Jack Bauer\", \"grade\": 6}\n"
+                        + "{\"name\": \"Tony Almeida\", \"grade\": 4}\n"));
+
+        assertThat(result.getReceived()).isEqualTo(3);
+        assertThat(result.getInserted()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting("row").containsExactly(1L, 2L);
+        assertThat(result.getErrors().get(1).getKey()).isEqualTo("5a9d6f1be4b0a5b1c8e4d2f8");
+        assertThat(result.getErrors().get(1).getMessage()).contains("duplicate key");
+    }
+
+    @Test
+    public void saveStudents_ChunkFailure() throws Exception {
+        when(bulkOperations.execute()).thenThrow(new DataAccessResourceFailureException("Connection refused"));
+
+        BatchResult result = studentBatchService.saveStudents(body(
+                "{\"name\": \"Jack Bauer\", \"grade\": 6}\n{\"name\": \"Tony Almeida\", \"grade\": 4}\n"));
+
+        assertThat(result.getInserted()).isEqualTo(0);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting("row").containsExactly(1L, 2L);
+    }
+
+    @Test
+    public void saveStudents_MalformedInput() throws Exception {
+        BulkWriteResult inserted = bulkResult(1, 0, 0);
+        when(bulkOperations.execute()).thenReturn(inserted);
+
+        BatchResult result = studentBatchService.saveStudents(body(
+                "{\"name\": \"Jack Bauer\", \"grade\": 6}\n{\"name\": "));
+
+        assertThat(result.getInserted()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(result.getErrors().get(0).getMessage()).startsWith("Malformed input");
+    }
+
+    private static BulkWriteResult bulkResult(int inserted, int matched, int upserted) {
+        BulkWriteResult bulkResult = mock(BulkWriteResult.class);
+        when(bulkResult.getInsertedCount()).thenReturn(inserted);
+        when(bulkResult.getMatchedCount()).thenReturn(matched);
+        BulkWriteUpsert[] upserts = new BulkWriteUpsert[upserted];
+        for (int i = 0; i < upserted; i++) {
+            upserts[i] = new BulkWriteUpsert(i, null);
+        }
+        when(bulkResult.getUpserts()).thenReturn(asList(upserts));
+        return bulkResult;
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,107 @@
+package devnoh.demoapp.service;
+
+import devnoh.demoapp.domain.Student;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StudentCacheTest {
+
+    private static final String ID = "5a9d6f1be4b0a5b1c8e4d2f7";
+
+    private StudentCache studentCache;
+
+    private Student student;
+
+    private AtomicInteger loads;
+
+    @Before
+    public void setUp() throws Exception {
+        studentCache = new StudentCache(100, 60);
+
+        student = new Student();
+        student.setId(ID);
+        student.setName("Jack Bauer");
+        student.setGrade(6);
+
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    public void getById() {
+        assertThat(studentCache.getById(ID, this::load)).isEqualTo(student);
+        assertThat(studentCache.getById(ID, this::load)).isEqualTo(student);
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void getById_NotFound_NotCached() {
+        assertThat(studentCache.getById(ID, id -> {
+            loads.incrementAndGet();
+            return null;
+        })).isNull();
+        assertThat(studentCache.getById(ID, this::load)).isEqualTo(student);
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void tag() {
+        assertThat(studentCache.getTagById(ID)).isNull();
+        String tag = studentCache.tag(studentCache.getById(ID, this::load));
+        assertThat(studentCache.getTagById(ID)).isEqualTo(tag);
+
+        studentCache.evict(Collections.singletonList(ID));
+        assertThat(studentCache.getTagById(ID)).isNull();
+        assertThat(studentCache.tag(student)).isEqualTo(tag);
+        assertThat(studentCache.getTagById(ID)).isNull();
+    }
+
+    @Test
+    public void evict() {
+        studentCache.getById(ID, this::load);
+        studentCache.evict(Collections.singletonList(ID));
+        studentCache.getById(ID, this::load);
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void getById_LoadRacingEviction_NotCached() {
+        studentCache.getById(ID, id -> {
+            studentCache.evict(Collections.singletonList(ID));
+            return load(id);
+        });
+        studentCache.getById(ID, this::load);
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void metrics() {
+        studentCache.getById(ID, this::load);
+        studentCache.getById(ID, this::load);
+        studentCache.getById(ID, this::load);
+        studentCache.evict(Collections.singletonList(ID));
+
+        Map<String, Number> metrics = new HashMap<>();
+        for (Metric<?> metric : studentCache.metrics()) {
+            metrics.put(metric.getName(), metric.getValue());
+        }
+        assertThat(metrics.get("cache.student.hits")).isEqualTo(2L);
+        assertThat(metrics.get("cache.student.misses")).isEqualTo(1L);
+        assertThat(metrics.get("cache.student.hit.ratio").doubleValue()).isEqualTo(2.0 / 3);
+        assertThat(metrics.get("cache.student.invalidations")).isEqualTo(1L);
+        assertThat(metrics).containsKeys("cache.student.size", "cache.student.evictions");
+    }
+
+    private Student load(String id) {
+        loads.incrementAndGet();
+        return student;
+    }
+
+}
@@ -0,0 +1,167 @@
+package devnoh.demoapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import devnoh.demoapp.domain.Student;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class StudentExportServiceTest {
+
+    @InjectMocks
+    private StudentExportService studentExportService;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    private Student student1;
+
+    private Student student2;
+
+    private ListCursor cursor;
+
+    @Before
+    public void setUp() throws Exception {
+        ReflectionTestUtils.setField(studentExportService, "flushSize", 1);
+
+        student1 = new Student();
+        student1.setId("5a9d6f1be4b0a5b1c8e4d2f7");
+        student1.setName("Jack Bauer");
+        student1.setGrade(6);
+
+        student2 = new Student();
+        student2.setId("5a9d6f1be4b0a5b1c8e4d2f8");
+        student2.setName("Tony Almeida");
+        student2.setGrade(6);
+
+        cursor = new ListCursor(student1, student2);
+        when(mongoTemplate.stream(any(Query.class), eq(Student.class))).thenReturn(cursor);
+    }
+
+    @Test
+    public void exportStudentsByGrade_Ndjson() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = studentExportService.exportStudentsByGrade(6, out, StudentExportService.Format.NDJSON);
+
+        assertThat(count).isEqualTo(2);
+        String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines[0], Student.class)).isEqualTo(student1);
+        assertThat(objectMapper.readValue(lines[1], Student.class)).isEqualTo(student2);
+        assertThat(cursor.closed).isTrue();
+    }
+
+    @Test
+    public void exportStudentsByGrade_EventStream() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        studentExportService.exportStudentsByGrade(6, out, StudentExportService.Format.EVENT_STREAM);
+
+        String[] events = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n\n");
+        assertThat(events).hasSize(2);
+        assertThat(events[0]).startsWith("data: {");
+        assertThat(objectMapper.readValue(events[1].substring("data: ".length()), Student.class))
+                .isEqualTo(student2);
+    }
+
+    @Test
+    public void exportStudentsByGrade_EventStream_FlushesEachEvent() throws Exception {
+        ReflectionTestUtils.setField(studentExportService, "flushSize", 100);
+        FlushRecordingStream out = new FlushRecordingStream();
+        studentExportService.exportStudentsByGrade(6, out, StudentExportService.Format.EVENT_STREAM);
+
+        String firstEvent = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n\n")[0] + "\n\n";
+        assertThat(out.flushedSizes).containsExactly(firstEvent.length(), out.size());
+    }
+
+    @Test
+    public void exportStudentsByGrade_Ndjson_FlushesInBatches() throws Exception {
+        ReflectionTestUtils.setField(studentExportService, "flushSize", 100);
+        FlushRecordingStream out = new FlushRecordingStream();
+        studentExportService.exportStudentsByGrade(6, out, StudentExportService.Format.NDJSON);
+
+        assertThat(out.flushedSizes).isEmpty();
+        assertThat(out.size()).isGreaterThan(0);
+    }
+
+    @Test
+    public void exportStudentsByGrade_ClientGone_ClosesCursor() throws Exception {
+        OutputStream out = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        try {
+            studentExportService.exportStudentsByGrade(6, out, StudentExportService.Format.NDJSON);
+            fail("Expected an IOException");
+        } catch (IOException e) {
+            assertThat(e).hasMessage("Broken pipe");
+        }
+        assertThat(cursor.closed).isTrue();
+    }
+
+    private static class FlushRecordingStream extends ByteArrayOutputStream {
+
+        private final List<Integer> flushedSizes = new ArrayList<>();
+
+        @Override
+        public void flush() {
+            flushedSizes.add(size());
+        }
+    }
+
+    private static class ListCursor implements CloseableIterator<Student> {
+
+        private final Iterator<Student> iterator;
+
+        private boolean closed;
+
+        ListCursor(Student... students) {
+            this.iterator = Arrays.asList(students).iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public Student next() {
+            return iterator.next();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+}
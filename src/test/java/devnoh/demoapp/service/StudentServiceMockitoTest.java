@@ -0,0 +1,90 @@
+package devnoh.demoapp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import devnoh.demoapp.domain.Student;
+import devnoh.demoapp.jms.JmsMessageSender;
+import devnoh.demoapp.repository.StudentRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.jms.UncategorizedJmsException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class StudentServiceMockitoTest {
+
+    private static final String ID = "5a9d6f1be4b0a5b1c8e4d2f7";
+
+    @InjectMocks
+    private StudentService studentService;
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Spy
+    private StudentCache studentCache = new StudentCache(100, 60);
+
+    @Mock
+    private JmsMessageSender jmsMessageSender;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    private Student student;
+
+    @Before
+    public void setUp() throws Exception {
+        ReflectionTestUtils.setField(studentService, "invalidationTopic", "student.invalidation");
+
+        student = new Student();
+        student.setId(ID);
+        student.setName("Jack Bauer");
+        student.setGrade(6);
+    }
+
+    @Test
+    public void findStudentById_Cached() {
+        when(studentRepository.findOne(ID)).thenReturn(student);
+
+        assertThat(studentService.findStudentById(ID)).isEqualTo(student);
+        assertThat(studentService.findStudentById(ID)).isEqualTo(student);
+
+        verify(studentRepository, times(1)).findOne(ID);
+    }
+
+    @Test
+    public void saveStudent_EvictsAndBroadcasts() {
+        when(studentRepository.findOne(ID)).thenReturn(student);
+        when(studentRepository.save(any(Student.class))).thenReturn(student);
+
+        studentService.findStudentById(ID);
+        studentService.saveStudent(student);
+        studentService.findStudentById(ID);
+
+        verify(studentRepository, times(2)).findOne(ID);
+        verify(jmsMessageSender, times(1)).publish("student.invalidation", "[\"" + ID + "\"]");
+    }
+
+    @Test
+    public void saveStudent_BroadcastFails() {
+        when(studentRepository.save(any(Student.class))).thenReturn(student);
+        doThrow(new UncategorizedJmsException("Broker down"))
+                .when(jmsMessageSender).publish(eq("student.invalidation"), anyString());
+
+        assertThat(studentService.saveStudent(student)).isEqualTo(student);
+    }
+
+}
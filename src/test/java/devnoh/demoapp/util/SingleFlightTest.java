@@ -0,0 +1,100 @@
+package devnoh.demoapp.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public class SingleFlightTest {
+
+    private SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    private AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    public void execute_Collapsed() throws Exception {
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+
+        CompletableFuture<String> first = singleFlight.execute("key", () -> call(upstream));
+        CompletableFuture<String> second = singleFlight.execute("key", () -> call(upstream));
+        assertThat(singleFlight.inFlight()).isEqualTo(1);
+
+        upstream.complete("value");
+
+        assertThat(first.get()).isEqualTo("value");
+        assertThat(second.get()).isEqualTo("value");
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(singleFlight.collapsed()).isEqualTo(1);
+        assertThat(singleFlight.inFlight()).isEqualTo(0);
+    }
+
+    @Test
+    public void execute_DifferentKeys() throws Exception {
+        singleFlight.execute("a", () -> call(new CompletableFuture<>()));
+        singleFlight.execute("b", () -> call(new CompletableFuture<>()));
+
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(singleFlight.collapsed()).isEqualTo(0);
+    }
+
+    @Test
+    public void execute_AfterCompletion_CallsAgain() throws Exception {
+        assertThat(singleFlight.execute("key", () -> call(CompletableFuture.completedFuture("1"))).get())
+                .isEqualTo("1");
+        assertThat(singleFlight.execute("key", () -> call(CompletableFuture.completedFuture("2"))).get())
+                .isEqualTo("2");
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void execute_Failure_SharedAndReleased() throws Exception {
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+        CompletableFuture<String> first = singleFlight.execute("key", () -> call(upstream));
+        CompletableFuture<String> second = singleFlight.execute("key", () -> call(upstream));
+
+        upstream.completeExceptionally(new IllegalStateException("Upstream failed"));
+
+        for (CompletableFuture<String> future : Arrays.asList(first, second)) {
+            try {
+                future.get();
+                fail();
+            } catch (ExecutionException e) {
+                assertThat(e).hasRootCauseInstanceOf(IllegalStateException.class);
+            }
+        }
+        assertThat(singleFlight.inFlight()).isEqualTo(0);
+    }
+
+    @Test
+    public void execute_CallThrows() throws Exception {
+        CompletableFuture<String> future = singleFlight.execute("key", () -> {
+            throw new IllegalStateException("Rejected");
+        });
+
+        assertThat(future.isCompletedExceptionally()).isTrue();
+        assertThat(singleFlight.inFlight()).isEqualTo(0);
+    }
+
+    @Test
+    public void execute_CancelOneCaller() throws Exception {
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+        CompletableFuture<String> first = singleFlight.execute("key", () -> call(upstream));
+        CompletableFuture<String> second = singleFlight.execute("key", () -> call(upstream));
+
+        first.cancel(true);
+        upstream.complete("value");
+
+        assertThat(second.get()).isEqualTo("value");
+    }
+
+    private CompletableFuture<String> call(CompletableFuture<String> result) {
+        calls.incrementAndGet();
+        return result;
+    }
+
+}